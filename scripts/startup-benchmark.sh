@@ -0,0 +1,117 @@
+#!/usr/bin/env bash
+# Compares time-to-ready and resident memory of the regular jar and the fast-startup jar.
+#
+#   mvn package && cp target/AuthorizationManager-0.0.1-SNAPSHOT.jar /tmp/baseline.jar
+#   mvn -Dfast-startup package && cp target/AuthorizationManager-0.0.1-SNAPSHOT.jar /tmp/fast.jar
+#   scripts/startup-benchmark.sh /tmp/baseline.jar /tmp/fast.jar
+#
+# The fast jar is extracted and trained into an AppCDS archive the same way as the Dockerfile
+# fast-startup stage. Both jars run with SPRING_PROFILES_ACTIVE (default k8s, the default
+# aot.profiles), so point POSTGRES_URL, KAFKA_BOOTSTRAP_SERVERS etc. at reachable services and
+# set JWT_SIGNINGKEYS_0_KID/_PRIVATEKEY/_PUBLICKEY (or add -Djwt.allow-ephemeral-key=true to JAVA_OPTS).
+# "Ready" is the first 200 from /actuator/health; RSS is sampled right after that.
+#
+# Environment: RUNS (default 5), PORT (default 8091), CPUS (taskset cpu list, e.g. 0 to mimic a
+# small CPU limit), JAVA_OPTS (added to both runs), OUTPUT (default target/startup-result.csv).
+set -euo pipefail
+
+if [[ $# -ne 2 ]]; then
+    echo "usage: $0 <baseline.jar> <fast-startup.jar>" >&2
+    exit 2
+fi
+
+BASELINE_JAR=$(realpath "$1")
+FAST_JAR=$(realpath "$2")
+RUNS=${RUNS:-5}
+PORT=${PORT:-8091}
+CPUS=${CPUS:-}
+JAVA_OPTS=${JAVA_OPTS:-}
+OUTPUT=${OUTPUT:-target/startup-result.csv}
+TIMEOUT_SECONDS=300
+export SPRING_PROFILES_ACTIVE=${SPRING_PROFILES_ACTIVE:-k8s}
+
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+launcher=()
+if [[ -n "$CPUS" ]]; then
+    launcher=(taskset -c "$CPUS")
+fi
+
+now_millis() {
+    date +%s%3N
+}
+
+# Prepares the fast-startup layout: extracted jar plus an AppCDS archive from a training run
+prepare_fast() {
+    echo "Training AppCDS archive for $FAST_JAR"
+    (cd "$WORK" && java -Djarmode=tools -jar "$FAST_JAR" extract --destination fast >/dev/null)
+    mv "$WORK"/fast/*.jar "$WORK/fast/app.jar"
+    (cd "$WORK/fast" && java -XX:ArchiveClassesAtExit=app.jsa \
+        -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh \
+        -Djwt.allow-ephemeral-key=true \
+        -Djwt.accept-legacy-hs256=false \
+        -Dspring.jpa.hibernate.ddl-auto=none \
+        -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+        -jar app.jar >"$WORK/training.log" 2>&1) || {
+        echo "Training run failed, see output below" >&2
+        cat "$WORK/training.log" >&2
+        exit 1
+    }
+}
+
+# Starts one variant, waits for readiness and prints "<ready millis> <rss KiB>"
+measure() {
+    local dir=$1
+    shift
+    local start pid ready rss
+    start=$(now_millis)
+    # shellcheck disable=SC2086
+    # The k8s profile moves the actuator to its own port; keep it on PORT for the readiness poll
+    (cd "$dir" && exec "${launcher[@]}" java $JAVA_OPTS "$@" --server.port="$PORT" --management.server.port="$PORT") \
+        >"$WORK/run.log" 2>&1 &
+    pid=$!
+
+    while ! curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited before becoming ready:" >&2
+            cat "$WORK/run.log" >&2
+            exit 1
+        fi
+        if (( $(now_millis) - start > TIMEOUT_SECONDS * 1000 )); then
+            kill "$pid"
+            echo "Application not ready after ${TIMEOUT_SECONDS}s" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    ready=$(( $(now_millis) - start ))
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ready $rss"
+}
+
+prepare_fast
+
+mkdir -p "$(dirname "$OUTPUT")"
+echo "variant,run,ready_ms,rss_kib" >"$OUTPUT"
+for variant in baseline fast-startup; do
+    for run in $(seq 1 "$RUNS"); do
+        if [[ $variant == baseline ]]; then
+            result=$(measure "$WORK" -jar "$BASELINE_JAR")
+        else
+            result=$(measure "$WORK/fast" -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar)
+        fi
+        read -r ready rss <<<"$result"
+        echo "$variant,$run,$ready,$rss" >>"$OUTPUT"
+        printf '%-13s run %d: ready in %6d ms, RSS %6d MiB\n' "$variant" "$run" "$ready" $(( rss / 1024 ))
+    done
+done
+
+echo
+awk -F, 'NR > 1 { n[$1]++; t[$1] += $3; r[$1] += $4 }
+    END { for (v in n) printf "%-13s mean: ready in %6d ms, RSS %6d MiB\n", v, t[v] / n[v], r[v] / n[v] / 1024 }' "$OUTPUT" | sort
+echo "Per-run results: $OUTPUT"
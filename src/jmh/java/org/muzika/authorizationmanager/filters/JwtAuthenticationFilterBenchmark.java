@@ -0,0 +1,87 @@
+package org.muzika.authorizationmanager.filters;
+
+import jakarta.servlet.FilterChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.muzika.authorizationmanager.config.AdminConfig;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.services.JwtService;
+import org.muzika.authorizationmanager.services.TokenEpochs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JWT filter. Verification is deferred until the SecurityContext is read,
+ * so bearerToken covers an authenticated endpoint and bearerTokenPermitAll a public one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtConfig config = new JwtConfig();
+        config.setExpiration(900_000L);
+        config.setAllowEphemeralKey(true);
+        JwtService jwtService = new JwtService(config, new TokenEpochs(), new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtService, new AdminConfig());
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/auth/user/1");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + jwtService.generateToken(UUID.randomUUID(), "benchmark-user", 0));
+        anonymousRequest = new MockHttpServletRequest("POST", "/api/auth/login");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object bearerToken() throws Exception {
+        try {
+            filter.doFilterInternal(authenticatedRequest, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void bearerTokenPermitAll() throws Exception {
+        try {
+            filter.doFilterInternal(authenticatedRequest, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object noAuthorizationHeader() throws Exception {
+        try {
+            filter.doFilterInternal(anonymousRequest, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
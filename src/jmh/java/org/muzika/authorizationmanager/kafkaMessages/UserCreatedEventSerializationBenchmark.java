@@ -0,0 +1,95 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring's JsonSerializer against UserCreatedEventSerializer for the user-created topic.
+ * Record sizes (value plus headers) are printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserCreatedEventSerializationBenchmark {
+
+    private static final String TOPIC = "user-created";
+
+    private JsonSerializer<UserCreatedEvent> jsonSerializer;
+    private JsonDeserializer<UserCreatedEvent> jsonDeserializer;
+    private UserCreatedEventSerializer binarySerializer;
+    private UserCreatedEventDeserializer binaryDeserializer;
+
+    private UserCreatedEvent event;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>(UserCreatedEvent.class, false);
+        binarySerializer = new UserCreatedEventSerializer();
+        binaryDeserializer = new UserCreatedEventDeserializer();
+
+        event = new UserCreatedEvent(UUID.randomUUID(), "benchmarkuser", "benchmark@example.com");
+
+        RecordHeaders jsonHeaders = new RecordHeaders();
+        jsonPayload = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+        binaryPayload = binarySerializer.serialize(TOPIC, event);
+
+        System.out.printf("%njson:   %d bytes value + %d bytes headers%n", jsonPayload.length, headerBytes(jsonHeaders));
+        System.out.printf("binary: %d bytes value + 0 bytes headers%n", binaryPayload.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public UserCreatedEvent deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, jsonPayload);
+    }
+
+    @Benchmark
+    public UserCreatedEvent deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binaryPayload);
+    }
+
+    private static int headerBytes(RecordHeaders headers) {
+        int size = 0;
+        for (Header header : headers) {
+            size += header.key().length() + header.value().length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,90 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification. The cached variant is what a client reusing its token costs,
+ * the uncached one is the first request with a fresh token (ES256 signature check).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    // Same as jwtService, but with revoked epochs for other users, so the epoch lookup is not skipped
+    private JwtService revocationsJwtService;
+    private String token;
+    private String uncachedToken;
+    private String revocationsToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(config(10_000), new TokenEpochs(), new SimpleMeterRegistry());
+        uncachedJwtService = new JwtService(config(0), new TokenEpochs(), new SimpleMeterRegistry());
+        token = jwtService.generateToken(USER_ID, "benchmark-user", 0);
+        uncachedToken = uncachedJwtService.generateToken(USER_ID, "benchmark-user", 0);
+
+        TokenEpochs revokedEpochs = new TokenEpochs();
+        for (int i = 0; i < 10_000; i++) {
+            revokedEpochs.advance(UUID.randomUUID(), 1, LocalDateTime.now());
+        }
+        revocationsJwtService = new JwtService(config(10_000), revokedEpochs, new SimpleMeterRegistry());
+        revocationsToken = revocationsJwtService.generateToken(USER_ID, "benchmark-user", 0);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(USER_ID, "benchmark-user", 0);
+    }
+
+    @Benchmark
+    public Object verifyTokenCached() {
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public Object verifyTokenUncached() {
+        return uncachedJwtService.verifyToken(uncachedToken);
+    }
+
+    @Benchmark
+    public Object verifyTokenCachedWithRevocations() {
+        return revocationsJwtService.verifyToken(revocationsToken);
+    }
+
+    @Benchmark
+    public Object verifyInvalidToken() {
+        return jwtService.verifyToken(token + "x");
+    }
+
+    static JwtConfig config(long cacheMaxEntries) {
+        JwtConfig config = new JwtConfig();
+        // No signing keys configured, so JwtService generates an ephemeral P-256 key
+        config.setAllowEphemeralKey(true);
+        config.setExpiration(900_000L);
+        config.setCacheMaxEntries(cacheMaxEntries);
+        return config;
+    }
+}
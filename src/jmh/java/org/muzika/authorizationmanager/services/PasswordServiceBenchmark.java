@@ -0,0 +1,78 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.muzika.authorizationmanager.config.PasswordHashingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash and verify through PasswordService, including the hand-off to the hashing pool, at the
+ * algorithm floors and one step above. Compare with the calibrated cost logged at startup.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordServiceBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"bcrypt-10", "bcrypt-12", "argon2-2", "argon2-4", "pbkdf2-310000", "pbkdf2-620000"})
+    private String encoder;
+
+    private PasswordService passwordService;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setTimeoutMillis(60_000);
+        passwordService = new PasswordService(encoder(encoder), config, new SimpleMeterRegistry());
+        hash = passwordService.hashPassword(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordService.shutdown();
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return passwordService.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return passwordService.verifyPassword(PASSWORD, hash);
+    }
+
+    private static PasswordEncoder encoder(String spec) {
+        String[] parts = spec.split("-");
+        int cost = Integer.parseInt(parts[1]);
+        return switch (parts[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(cost);
+            case "argon2" -> new Argon2PasswordEncoder(16, 32, 1, 1 << 14, cost);
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder("", 16, cost,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            default -> throw new IllegalArgumentException("Unknown encoder: " + spec);
+        };
+    }
+}
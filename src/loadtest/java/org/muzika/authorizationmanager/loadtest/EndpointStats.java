@@ -0,0 +1,72 @@
+package org.muzika.authorizationmanager.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one endpoint. Each worker keeps its own instance so recording is
+ * uncontended; they are merged once the run is over.
+ */
+final class EndpointStats {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long errors;
+    private final Map<Integer, Long> statusCounts = new TreeMap<>();
+
+    void record(long latencyNanos, int status) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        statusCounts.merge(status, 1L, Long::sum);
+        if (status >= 400 || status == 0) {
+            errors++;
+        }
+    }
+
+    void merge(EndpointStats other) {
+        for (int i = 0; i < other.count; i++) {
+            if (count == latenciesNanos.length) {
+                latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+            }
+            latenciesNanos[count++] = other.latenciesNanos[i];
+        }
+        errors += other.errors;
+        other.statusCounts.forEach((status, n) -> statusCounts.merge(status, n, Long::sum));
+    }
+
+    /**
+     * Summary for the report; status 0 counts requests that failed without a response.
+     */
+    Map<String, Object> summarize(double durationSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("throughputPerSecond", round(count / durationSeconds));
+        summary.put("errors", errors);
+        summary.put("errorRate", count == 0 ? 0.0 : round((double) errors / count));
+        summary.put("p50Millis", percentileMillis(sorted, 0.50));
+        summary.put("p99Millis", percentileMillis(sorted, 0.99));
+        summary.put("p999Millis", percentileMillis(sorted, 0.999));
+        summary.put("maxMillis", sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1_000_000.0));
+        summary.put("statusCounts", statusCounts);
+        return summary;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(index, 0)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,232 @@
+package org.muzika.authorizationmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.muzika.authorizationmanager.AuthorizationManagerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application against in-memory H2 and an embedded Kafka broker, seeds users and drives
+ * a weighted mix of endpoints at a fixed concurrency. Latency is measured per request from send to
+ * full response, so it includes queueing in Tomcat, Hikari and the hashing pool.
+ * <p>
+ * The load generator shares the JVM and CPUs with the application; absolute numbers are therefore
+ * pessimistic and best used to compare configurations on the same machine.
+ */
+public class LoadTestHarness {
+
+    static final List<String> ENDPOINTS = List.of("login", "register", "authenticated");
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong registrations = new AtomicLong();
+    private String baseUrl;
+    private List<String> seedUsernames;
+    private List<String> seedTokens;
+
+    LoadTestHarness(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, "user-created");
+        kafka.afterPropertiesSet();
+        ConfigurableApplicationContext application = null;
+        try {
+            application = new SpringApplicationBuilder(AuthorizationManagerApplication.class)
+                    .profiles("loadtest")
+                    .properties("spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString())
+                    .run();
+            int port = application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            new LoadTestHarness(options).run("http://localhost:" + port);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            kafka.destroy();
+        }
+    }
+
+    void run(String baseUrl) throws Exception {
+        this.baseUrl = baseUrl;
+        seed();
+
+        System.out.printf("Warm-up: %ds at concurrency %d%n", options.warmupSeconds(), options.concurrency());
+        drive(options.warmupSeconds());
+        System.out.printf("Measuring: %ds at concurrency %d, mix %s%n",
+                options.durationSeconds(), options.concurrency(), options.mix());
+        Map<String, EndpointStats> stats = drive(options.durationSeconds());
+
+        report(stats);
+    }
+
+    /**
+     * Registers the users that login and authenticated requests run against and logs each in once
+     * for a bearer token.
+     */
+    private void seed() throws Exception {
+        System.out.printf("Seeding %d users%n", options.seedUsers());
+        seedUsernames = new ArrayList<>(options.seedUsers());
+        for (int i = 0; i < options.seedUsers(); i++) {
+            seedUsernames.add("seed" + i);
+        }
+
+        // Stay within the hashing pool so seeding is not rejected with 503
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (String username : seedUsernames) {
+                tokens.add(executor.submit(() -> {
+                    HttpResponse<String> created = post("/user", userBody(username), null);
+                    if (created.statusCode() != 201 && created.statusCode() != 200) {
+                        throw new IllegalStateException("Seeding " + username + " failed: " + created.statusCode());
+                    }
+                    HttpResponse<String> login = post("/login", loginBody(username), null);
+                    JsonNode body = objectMapper.readTree(login.body());
+                    return body.path("token").asText();
+                }));
+            }
+            seedTokens = new ArrayList<>(tokens.size());
+            for (Future<String> token : tokens) {
+                seedTokens.add(token.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Map<String, EndpointStats> drive(int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        List<Future<Map<String, EndpointStats>>> workers = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            workers.add(executor.submit(() -> work(deadline)));
+        }
+
+        Map<String, EndpointStats> merged = new LinkedHashMap<>();
+        try {
+            for (Future<Map<String, EndpointStats>> worker : workers) {
+                worker.get().forEach((endpoint, stats) ->
+                        merged.computeIfAbsent(endpoint, key -> new EndpointStats()).merge(stats));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return merged;
+    }
+
+    private Map<String, EndpointStats> work(long deadline) {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        int totalWeight = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadline) {
+            String endpoint = pick(random.nextInt(totalWeight));
+            int user = random.nextInt(seedUsernames.size());
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = switch (endpoint) {
+                    case "login" -> post("/login", loginBody(seedUsernames.get(user)), null).statusCode();
+                    case "register" -> post("/user", userBody("lt" + registrations.incrementAndGet()), null).statusCode();
+                    case "authenticated" -> post("/introspect",
+                            objectMapper.writeValueAsString(Map.of("tokens", List.of(seedTokens.get(user)))),
+                            seedTokens.get(user)).statusCode();
+                    default -> throw new IllegalStateException("Unknown endpoint: " + endpoint);
+                };
+            } catch (Exception e) {
+                status = 0;
+            }
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(System.nanoTime() - start, status);
+        }
+        return stats;
+    }
+
+    private String pick(int roll) {
+        int cumulative = 0;
+        for (Map.Entry<String, Integer> entry : options.mix().entrySet()) {
+            cumulative += entry.getValue();
+            if (roll < cumulative) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix weights must be positive: " + options.mix());
+    }
+
+    private HttpResponse<String> post(String path, String body, String bearerToken) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (bearerToken != null) {
+            request.header("Authorization", "Bearer " + bearerToken);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String userBody(String username) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", PASSWORD));
+    }
+
+    private String loginBody(String username) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD));
+    }
+
+    private void report(Map<String, EndpointStats> stats) throws Exception {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) ->
+                endpoints.put(endpoint, endpointStats.summarize(options.durationSeconds())));
+
+        System.out.printf("%n%-14s %10s %10s %8s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms");
+        endpoints.forEach((endpoint, summary) -> {
+            Map<?, ?> s = (Map<?, ?>) summary;
+            System.out.printf("%-14s %10s %10s %8s %10s %10s %10s%n", endpoint, s.get("requests"),
+                    s.get("throughputPerSecond"), s.get("errors"), s.get("p50Millis"), s.get("p99Millis"),
+                    s.get("p999Millis"));
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("concurrency", options.concurrency());
+        result.put("durationSeconds", options.durationSeconds());
+        result.put("seedUsers", options.seedUsers());
+        result.put("mix", options.mix());
+        result.put("endpoints", endpoints);
+
+        File output = new File(options.output());
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, result);
+        System.out.printf("%nResults written to %s%n", output.getAbsolutePath());
+    }
+}
@@ -0,0 +1,45 @@
+package org.muzika.authorizationmanager.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load harness, given as --name=value.
+ */
+record LoadTestOptions(int concurrency,
+                       int warmupSeconds,
+                       int durationSeconds,
+                       int seedUsers,
+                       Map<String, Integer> mix,
+                       String output) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : values.getOrDefault("mix", "login:70,register:10,authenticated:20").split(",")) {
+            String[] parts = entry.split(":");
+            String endpoint = parts[0].trim();
+            if (!LoadTestHarness.ENDPOINTS.contains(endpoint)) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoint
+                        + ", expected one of " + LoadTestHarness.ENDPOINTS);
+            }
+            mix.put(endpoint, Integer.parseInt(parts[1].trim()));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                mix,
+                values.getOrDefault("output", "target/loadtest-result.json"));
+    }
+}
@@ -0,0 +1,18 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.admin")
+@Data
+public class AdminConfig {
+    // User ids whose access tokens are granted ROLE_ADMIN (export, import, snapshot and actuator endpoints).
+    // Ids rather than usernames, so re-registering a deleted admin's username grants nothing
+    private Set<UUID> userIds = new HashSet<>();
+}
@@ -0,0 +1,105 @@
+package org.muzika.authorizationmanager.config;
+
+import org.muzika.authorizationmanager.exception.ServiceBusyException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * With virtual threads Tomcat no longer caps concurrency, so thousands of requests could queue
+ * inside Hikari and hit its connection timeout. A permit is taken when a connection is checked out
+ * and released when it is closed, so only code holding a connection is bounded; a login waiting for
+ * password hashing holds none. Checkouts that cannot get a permit in time fail with
+ * {@link ServiceBusyException}, like the password hashing pool does.
+ */
+public class ConnectionPermitDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final int retryAfterSeconds;
+
+    public ConnectionPermitDataSource(DataSource target, int permits, long acquireTimeoutMillis, int retryAfterSeconds) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return withPermit(getTargetDataSource()::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return withPermit(() -> getTargetDataSource().getConnection(username, password));
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ServiceBusyException("Too many concurrent database requests", retryAfterSeconds);
+        }
+    }
+
+    private Connection withPermit(ConnectionCheckout checkout) throws SQLException {
+        Connection target;
+        try {
+            target = checkout.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        // Each permit is released once, however often the connection is closed
+        AtomicBoolean held = new AtomicBoolean(true);
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (held.compareAndSet(true, false)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCheckout {
+        Connection get() throws SQLException;
+    }
+}
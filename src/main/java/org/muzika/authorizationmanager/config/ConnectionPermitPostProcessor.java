@@ -0,0 +1,62 @@
+package org.muzika.authorizationmanager.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link ConnectionPermitDataSource} in virtual-thread mode.
+ * With replica routing the wrapper goes inside the lazy proxy, so a permit is only taken when a
+ * transaction actually checks out a connection.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConnectionPermitPostProcessor implements BeanPostProcessor {
+
+    // Resolved lazily: post-processors are created before the beans they depend on are ready
+    private final ObjectProvider<VirtualThreadsConfig> config;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Environment environment;
+
+    public ConnectionPermitPostProcessor(ObjectProvider<VirtualThreadsConfig> config,
+                                         ObjectProvider<MeterRegistry> meterRegistry,
+                                         Environment environment) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        if (dataSource instanceof LazyConnectionDataSourceProxy lazy) {
+            lazy.setTargetDataSource(withPermits(lazy.getTargetDataSource()));
+            return lazy;
+        }
+        return withPermits(dataSource);
+    }
+
+    private ConnectionPermitDataSource withPermits(DataSource target) {
+        VirtualThreadsConfig settings = config.getObject();
+        int permits = settings.getMaxConcurrentConnections() > 0
+                ? settings.getMaxConcurrentConnections()
+                : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        ConnectionPermitDataSource permitDataSource = new ConnectionPermitDataSource(target, permits,
+                settings.getAcquireTimeoutMillis(), settings.getRetryAfterSeconds());
+
+        Gauge.builder("auth.db.connection.permits.available", permitDataSource, ConnectionPermitDataSource::availablePermits)
+                .description("Connection permits left before virtual threads start waiting for a connection")
+                .register(meterRegistry.getObject());
+        return permitDataSource;
+    }
+}
@@ -0,0 +1,98 @@
+package org.muzika.authorizationmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary pool from spring.datasource.* plus one pool per read replica, combined behind a routing
+ * DataSource. Only active with datasource.routing.enabled=true; otherwise Boot's single pool is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Replica pools as a bean of their own, so the context closes them on shutdown like the primary.
+     */
+    @Bean
+    ReplicaDataSources replicaDataSources(HikariDataSource primaryDataSource,
+                                          DataSourceProperties properties,
+                                          DataSourceRoutingConfig routingConfig,
+                                          MeterRegistry meterRegistry) {
+        ReplicaDataSources replicaDataSources = new ReplicaDataSources();
+        List<DataSourceRoutingConfig.Replica> replicas = routingConfig.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaDataSources.pools.put(key, replicaDataSource(key, replicas.get(i), primaryDataSource, properties, meterRegistry));
+        }
+        return replicaDataSources;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSources replicaDataSources) {
+        Map<Object, Object> targets = new HashMap<>(replicaDataSources.pools);
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+
+        List<String> replicaKeys = new ArrayList<>(replicaDataSources.pools.keySet());
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaKeys);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource replicaDataSource(String poolName,
+                                                      DataSourceRoutingConfig.Replica replica,
+                                                      HikariDataSource primary,
+                                                      DataSourceProperties properties,
+                                                      MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        // Same driver and pool tuning as the primary, different endpoint
+        primary.copyStateTo(dataSource);
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+        if (replica.getMaximumPoolSize() > 0) {
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        }
+        dataSource.setReadOnly(true);
+        // Primary is a bean and instrumented by Boot; replica pools are not, so register their metrics here
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    static final class ReplicaDataSources implements AutoCloseable {
+
+        // Keyed by routing key, in configuration order
+        private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+
+        // Inferred as the bean's destroy method
+        @Override
+        public void close() {
+            pools.values().forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource.routing")
+@Data
+public class DataSourceRoutingConfig {
+    // Route read-only transactions to the replicas below; everything else stays on spring.datasource
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // After a user is written, reads for that user go to the primary for this long (replication lag budget)
+    private long stickyWindowMillis = 5000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        // Credentials default to spring.datasource.username/password
+        private String username;
+        private String password;
+        // 0 uses spring.datasource.hikari.maximum-pool-size
+        private int maximumPoolSize = 0;
+    }
+}
@@ -4,11 +4,47 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 @Data
 public class JwtConfig {
+    // HS256 secret, only used to verify tokens issued before the switch to ES256
     private String secret;
+    private boolean acceptLegacyHs256 = true;
+    // ES256 keys; all are published in the JWKS, activeKeyId signs new tokens
+    private List<SigningKey> signingKeys = new ArrayList<>();
+    private String activeKeyId;
+    // Signs with a generated key when no signing keys are set; only enabled by the local profile
+    private boolean allowEphemeralKey = false;
+    // Access token lifetime in milliseconds
     private Long expiration;
-}
+    // Refresh token lifetime in milliseconds
+    private Long refreshExpiration = 2592000000L;
+    // Upper bound on unused refresh tokens kept in memory by RefreshTokenService
+    private Long refreshCacheMaxEntries = 10000L;
+    // Upper bound on verified tokens kept in memory by JwtService
+    private Long cacheMaxEntries = 10000L;
+    // Interval of the query that picks up token epoch changes missed on the token-epoch topic
+    private long epochRefreshMillis = 30000;
+    // Interval of the job that drops token epochs older than the access token lifetime
+    private long epochPruneMillis = 3600000;
+    private Introspection introspection = new Introspection();
 
+    @Data
+    public static class SigningKey {
+        private String kid;
+        // PKCS#8 EC private key (PEM or base64 DER); omit for verify-only keys being rotated out
+        private String privateKey;
+        // X.509 EC public key (PEM or base64 DER)
+        private String publicKey;
+    }
+
+    @Data
+    public static class Introspection {
+        // Upper bound on tokens per POST /introspect request
+        private int maxTokens = 500;
+    }
+}
@@ -1,18 +1,30 @@
 package org.muzika.authorizationmanager.config;
 
 import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.muzika.authorizationmanager.kafkaMessages.TokenEpochEvent;
 import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEvent;
+import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEventDeserializer;
+import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEventSerializer;
+import org.muzika.authorizationmanager.kafkaMessages.UserDirectoryEntry;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
@@ -30,6 +42,13 @@ public class KafkaConfig {
     @Value("${spring.kafka.producer.acks:all}")
     private String acks;
 
+    @Value("${spring.kafka.producer.properties.max.block.ms:60000}")
+    private long maxBlockMs;
+
+    // json or binary; switch to binary once every consumer of user-created reads it
+    @Value("${kafka.user-created.format:json}")
+    private String userCreatedFormat;
+
     @Bean
     public KafkaAdmin admin() {
         Map<String, Object> configs = new HashMap<>();
@@ -43,6 +62,53 @@ public class KafkaConfig {
 
     @Bean
     ProducerFactory<String, UserCreatedEvent> userCreatedProducerFactory() {
+        if ("binary".equalsIgnoreCase(userCreatedFormat)) {
+            return new DefaultKafkaProducerFactory<>(producerConfig(),
+                    new StringSerializer(),
+                    new UserCreatedEventSerializer());
+        }
+        if (!"json".equalsIgnoreCase(userCreatedFormat)) {
+            throw new IllegalArgumentException("kafka.user-created.format must be json or binary");
+        }
+        return new DefaultKafkaProducerFactory<>(producerConfig());
+    }
+
+    @Bean
+    KafkaTemplate<String, UserCreatedEvent> userCreatedKafkaTemplate() {
+        return new KafkaTemplate<>(userCreatedProducerFactory());
+    }
+
+    @Bean
+    ProducerFactory<String, UserInvalidatedEvent> userInvalidationProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfig());
+    }
+
+    @Bean
+    KafkaTemplate<String, UserInvalidatedEvent> userInvalidationKafkaTemplate() {
+        return new KafkaTemplate<>(userInvalidationProducerFactory());
+    }
+
+    @Bean
+    ProducerFactory<String, UserDirectoryEntry> userDirectoryProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfig());
+    }
+
+    @Bean
+    KafkaTemplate<String, UserDirectoryEntry> userDirectoryKafkaTemplate() {
+        return new KafkaTemplate<>(userDirectoryProducerFactory());
+    }
+
+    @Bean
+    ProducerFactory<String, TokenEpochEvent> tokenEpochProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfig());
+    }
+
+    @Bean
+    KafkaTemplate<String, TokenEpochEvent> tokenEpochKafkaTemplate() {
+        return new KafkaTemplate<>(tokenEpochProducerFactory());
+    }
+
+    private Map<String, Object> producerConfig() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
@@ -58,12 +124,67 @@ public class KafkaConfig {
         config.put(ProducerConfig.LINGER_MS_CONFIG, 10);
         // Compression
         config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "snappy");
-        return new DefaultKafkaProducerFactory<>(config);
+        // Upper bound for send() waiting on metadata or buffer space
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        return config;
     }
 
+    /**
+     * Consumers in this service keep in-memory state in sync across replicas, so each instance
+     * reads with its own group and only needs events produced after it started.
+     */
     @Bean
-    KafkaTemplate<String, UserCreatedEvent> userCreatedKafkaTemplate() {
-        return new KafkaTemplate<>(userCreatedProducerFactory());
+    ConsumerFactory<String, UserCreatedEvent> userCreatedConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(),
+                new UserCreatedEventDeserializer());
+    }
+
+    @Bean
+    ConcurrentKafkaListenerContainerFactory<String, UserCreatedEvent> userCreatedListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UserCreatedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(userCreatedConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    ConsumerFactory<String, UserInvalidatedEvent> userInvalidationConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(),
+                new JsonDeserializer<>(UserInvalidatedEvent.class, false));
+    }
+
+    @Bean
+    ConcurrentKafkaListenerContainerFactory<String, UserInvalidatedEvent> userInvalidationListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UserInvalidatedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(userInvalidationConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    ConsumerFactory<String, TokenEpochEvent> tokenEpochConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(),
+                new JsonDeserializer<>(TokenEpochEvent.class, false));
+    }
+
+    @Bean
+    ConcurrentKafkaListenerContainerFactory<String, TokenEpochEvent> tokenEpochListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TokenEpochEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(tokenEpochConsumerFactory());
+        return factory;
     }
 
     /**
@@ -73,7 +194,13 @@ public class KafkaConfig {
     @Profile("!k8s")
     public KafkaAdmin.NewTopics localTopics() {
         return new KafkaAdmin.NewTopics(
-                TopicBuilder.name("user-created").partitions(1).replicas(1).build()
+                TopicBuilder.name("user-created").partitions(1).replicas(1).build(),
+                TopicBuilder.name("user-invalidation").partitions(1).replicas(1).build(),
+                TopicBuilder.name("token-epoch").partitions(1).replicas(1).build(),
+                // Compacted: keeps the latest entry per user id; tombstones stay a day so consumers see deletes
+                TopicBuilder.name("user-directory").partitions(1).replicas(1).compact()
+                        .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, "86400000")
+                        .build()
         );
     }
 
@@ -0,0 +1,22 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "login.throttle")
+@Data
+public class LoginThrottleConfig {
+    private boolean enabled = true;
+    // Login attempts allowed in a burst for one username, refilled at usernamePerMinute
+    private int usernameBurst = 5;
+    private int usernamePerMinute = 5;
+    // Same for one client address; higher because of NAT and shared egress
+    private int ipBurst = 30;
+    private int ipPerMinute = 60;
+    // Upper bound of tracked usernames and of tracked addresses, least valuable entries are evicted first
+    private long maxTrackedKeys = 100000;
+    // Buckets untouched for this long are dropped (they would be full again anyway)
+    private long idleEvictionMinutes = 15;
+}
@@ -0,0 +1,21 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "outbox.relay")
+@Data
+public class OutboxConfig {
+    private boolean enabled = true;
+    private long intervalMillis = 500;
+    // Events locked and published per relay transaction
+    private int batchSize = 500;
+    private long sendTimeoutMillis = 10000;
+    // Retries back off exponentially from 1s up to maxBackoffMillis, then the event is marked FAILED
+    private int maxAttempts = 10;
+    private long maxBackoffMillis = 300000;
+    // Delivered events are kept this long for troubleshooting
+    private long retentionHours = 168;
+}
@@ -0,0 +1,126 @@
+package org.muzika.authorizationmanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Builds the delegating password encoder and tunes the cost of the encoding algorithm
+ * to the hardware the service is running on.
+ */
+final class PasswordEncoderCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderCalibrator.class);
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    // Security floors - calibration only ever raises the cost above these
+    private static final int BCRYPT_MIN_STRENGTH = 10;
+    private static final int BCRYPT_MAX_STRENGTH = 16;
+    private static final int PBKDF2_MIN_ITERATIONS = 310_000;
+    private static final int PBKDF2_MAX_ITERATIONS = 10_000_000;
+    private static final int ARGON2_MIN_ITERATIONS = 2;
+    private static final int ARGON2_MAX_ITERATIONS = 10;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int SAMPLES = 3;
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    static PasswordEncoder build(PasswordHashingConfig config) {
+        String idForEncode = config.getAlgorithm().toLowerCase();
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(BCRYPT_MIN_STRENGTH));
+        encoders.put(ARGON2, argon2(ARGON2_MIN_ITERATIONS));
+        encoders.put(PBKDF2, pbkdf2(PBKDF2_MIN_ITERATIONS));
+
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + config.getAlgorithm());
+        }
+        if (config.isCalibrate()) {
+            encoders.put(idForEncode, calibrate(idForEncode, config.getTargetMillis()));
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return delegating;
+    }
+
+    private static PasswordEncoder calibrate(String algorithm, long targetMillis) {
+        return switch (algorithm) {
+            case BCRYPT -> calibrate(algorithm, targetMillis, BCRYPT_MIN_STRENGTH, BCRYPT_MAX_STRENGTH,
+                    strength -> strength + 1, BCryptPasswordEncoder::new);
+            case ARGON2 -> calibrate(algorithm, targetMillis, ARGON2_MIN_ITERATIONS, ARGON2_MAX_ITERATIONS,
+                    iterations -> iterations + 1, PasswordEncoderCalibrator::argon2);
+            case PBKDF2 -> calibrate(algorithm, targetMillis, PBKDF2_MIN_ITERATIONS, PBKDF2_MAX_ITERATIONS,
+                    iterations -> iterations * 2, PasswordEncoderCalibrator::pbkdf2);
+            default -> throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        };
+    }
+
+    /**
+     * Raises the cost step by step while a single hash stays within the latency budget.
+     * The floor is kept even when the hardware cannot meet the budget with it.
+     */
+    private static PasswordEncoder calibrate(String algorithm, long targetMillis, int minCost, int maxCost,
+                                             IntUnaryOperator nextCost, IntFunction<PasswordEncoder> factory) {
+        int cost = minCost;
+        PasswordEncoder encoder = factory.apply(cost);
+        // Warm up so the first measurement does not include class loading and JIT
+        encoder.encode(CALIBRATION_PASSWORD);
+        long millis = measure(encoder);
+
+        while (nextCost.applyAsInt(cost) <= maxCost) {
+            int candidateCost = nextCost.applyAsInt(cost);
+            PasswordEncoder candidate = factory.apply(candidateCost);
+            long candidateMillis = measure(candidate);
+            if (candidateMillis > targetMillis) {
+                break;
+            }
+            cost = candidateCost;
+            encoder = candidate;
+            millis = candidateMillis;
+        }
+
+        if (millis > targetMillis) {
+            logger.warn("Password hashing calibration: {} at minimum cost {} takes {} ms, above the {} ms target",
+                    algorithm, cost, millis, targetMillis);
+        } else {
+            logger.info("Password hashing calibration: {} cost {} takes {} ms (target {} ms)",
+                    algorithm, cost, millis, targetMillis);
+        }
+        return encoder;
+    }
+
+    private static long measure(PasswordEncoder encoder) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    private static PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, 1 << 14, iterations);
+    }
+
+    // Stores the iteration count in the hash so calibrated costs verify and upgrade on login
+    private static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2IterationsPasswordEncoder(iterations, PBKDF2_MIN_ITERATIONS, PBKDF2_MAX_ITERATIONS);
+    }
+}
@@ -0,0 +1,25 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "password.hashing")
+@Data
+public class PasswordHashingConfig {
+    // Worker threads for BCrypt work, 0 means one per CPU visible to the JVM (container limit aware)
+    private int threads = 0;
+    // Hashing requests allowed to wait for a worker before new ones are rejected with 503
+    private int queueCapacity = 16;
+    // Maximum time a request thread waits for its hash result; a hash already running still finishes
+    private long timeoutMillis = 5000;
+    // Value of the Retry-After header sent with rejected requests
+    private int retryAfterSeconds = 1;
+    // Encoding used for new hashes: bcrypt, argon2 or pbkdf2 (existing hashes of any of them still verify)
+    private String algorithm = "bcrypt";
+    // Benchmark the cost parameter at startup against targetMillis instead of using the algorithm floor
+    private boolean calibrate = true;
+    // Per-hash latency budget used by the startup calibration
+    private long targetMillis = 250;
+}
@@ -0,0 +1,73 @@
+package org.muzika.authorizationmanager.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PBKDF2-SHA256 that stores the iteration count in the hash as {@code <iterations>$<hex>}.
+ * Spring's Pbkdf2PasswordEncoder does not record it, so a hash could neither be verified after
+ * calibration picked another count nor be recognised as weaker than the current cost.
+ * Hashes without a count were written at the uncalibrated floor.
+ */
+final class Pbkdf2IterationsPasswordEncoder implements PasswordEncoder {
+
+    private static final char SEPARATOR = '$';
+
+    private final int iterations;
+    private final int legacyIterations;
+    private final int maxIterations;
+    // One Spring encoder per iteration count seen in stored hashes
+    private final Map<Integer, Pbkdf2PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+    Pbkdf2IterationsPasswordEncoder(int iterations, int legacyIterations, int maxIterations) {
+        this.iterations = iterations;
+        this.legacyIterations = legacyIterations;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return iterations + String.valueOf(SEPARATOR) + encoder(iterations).encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        int stored = storedIterations(encodedPassword);
+        if (stored <= 0 || stored > maxIterations) {
+            return false;
+        }
+        return encoder(stored).matches(rawPassword, hash(encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && storedIterations(encodedPassword) < iterations;
+    }
+
+    private int storedIterations(String encodedPassword) {
+        int separator = encodedPassword.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return legacyIterations;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 0, separator, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String hash(String encodedPassword) {
+        return encodedPassword.substring(encodedPassword.indexOf(SEPARATOR) + 1);
+    }
+
+    private Pbkdf2PasswordEncoder encoder(int iterationCount) {
+        return encoders.computeIfAbsent(iterationCount, count -> new Pbkdf2PasswordEncoder("", 16, count,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    }
+}
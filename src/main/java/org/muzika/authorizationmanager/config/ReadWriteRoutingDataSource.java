@@ -0,0 +1,61 @@
+package org.muzika.authorizationmanager.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replicas (round robin) and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy so the connection is taken after the
+ * transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final List<String> replicaKeys;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReadWriteRoutingDataSource(List<String> replicaKeys) {
+        this.replicaKeys = List.copyOf(replicaKeys);
+    }
+
+    /**
+     * Runs the work with read-only transactions routed to the primary, for reads that must see a
+     * write that may not have replicated yet. Without routing configured this just runs the work.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    /**
+     * Whether the current thread is inside {@link #onPrimary}.
+     */
+    public static boolean isPrimaryForced() {
+        return FORCE_PRIMARY.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty()
+                || FORCE_PRIMARY.get() != null
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+}
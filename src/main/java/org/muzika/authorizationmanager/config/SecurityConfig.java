@@ -7,7 +7,6 @@ import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -32,8 +31,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingConfig passwordHashingConfig) {
+        // Delegating encoder: new hashes use the configured algorithm at a cost calibrated on this hardware,
+        // older BCrypt/Argon2/PBKDF2 hashes keep verifying and are upgraded on the next successful login
+        return PasswordEncoderCalibrator.build(passwordHashingConfig);
     }
 
     @Bean
@@ -54,6 +55,7 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         boolean isK8sProfile = Arrays.asList(environment.getActiveProfiles()).contains("k8s");
+        Integer managementPort = environment.getProperty("management.server.port", Integer.class);
         
         http
             .csrf(csrf -> csrf.disable()) // Completely disable CSRF (stateless JWT API)
@@ -63,17 +65,30 @@ public class SecurityConfig {
                 // Allow OPTIONS requests (CORS preflight) without authentication
                 auth.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
                 // Allow health check endpoints without authentication (for Load Balancer and ingress)
-                auth.requestMatchers("/", "/health", "/actuator/health", "/actuator/**").permitAll();
+                auth.requestMatchers("/", "/health", "/actuator/health", "/actuator/health/**").permitAll();
+                // Metrics are open on the management port, which is only reachable inside the cluster,
+                // and otherwise need an admin token
+                if (managementPort != null) {
+                    auth.requestMatchers(request -> request.getLocalPort() == managementPort).permitAll();
+                }
+                auth.requestMatchers("/actuator/**").hasRole("ADMIN");
                 // Allow public registration and login endpoints (support both direct and /api/auth prefixed paths)
                 // Explicitly allow POST for registration and login
                 auth.requestMatchers(HttpMethod.POST, "/user", "/login", "/api/auth/user", "/api/auth/login").permitAll();
                 auth.requestMatchers("/user", "/login", "/api/auth/user", "/api/auth/login").permitAll();
+                // Public verification keys for downstream services
+                auth.requestMatchers(HttpMethod.GET, "/.well-known/jwks.json", "/api/auth/.well-known/jwks.json").permitAll();
+                // Refresh authenticates with the refresh token itself
+                auth.requestMatchers(HttpMethod.POST, "/refresh", "/api/auth/refresh").permitAll();
                 // Allow Swagger UI endpoints without authentication on local profile (not k8s)
                 if (!isK8sProfile) {
                     auth.requestMatchers("/swagger-ui.html", "/swagger-ui/**", 
                                         "/v3/api-docs", "/v3/api-docs/**", 
                                         "/api-docs", "/api-docs/**").permitAll();
                 }
+                // Bulk export and import of users are limited to accounts listed in security.admin.user-ids
+                auth.requestMatchers("/admin/**", "/api/auth/admin/**").hasRole("ADMIN");
+                auth.requestMatchers("/users/import", "/api/auth/users/import").hasRole("ADMIN");
                 // All other requests require authentication
                 auth.anyRequest().authenticated();
             })
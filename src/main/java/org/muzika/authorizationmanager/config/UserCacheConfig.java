@@ -0,0 +1,16 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "user.cache")
+@Data
+public class UserCacheConfig {
+    private boolean enabled = true;
+    // Users kept per instance; least valuable entries are evicted first
+    private long maxEntries = 10000;
+    // Upper bound on staleness if an invalidation message is lost or delayed
+    private long ttlSeconds = 300;
+}
@@ -0,0 +1,15 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "user.directory")
+@Data
+public class UserDirectoryConfig {
+    // Publish upserts and tombstones to the compacted user-directory topic
+    private boolean enabled = true;
+    // Users locked and enqueued per transaction during a snapshot
+    private int snapshotPageSize = 500;
+}
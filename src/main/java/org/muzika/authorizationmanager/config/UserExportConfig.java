@@ -0,0 +1,13 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "user.export")
+@Data
+public class UserExportConfig {
+    // Rows read and flushed per keyset page of GET /admin/users/export
+    private int pageSize = 1000;
+}
@@ -0,0 +1,15 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "user.import")
+@Data
+public class UserImportConfig {
+    // Records validated, hashed and inserted per transaction
+    private int chunkSize = 500;
+    // Per-record failures listed in the response; the failed count is always complete
+    private int maxReportedFailures = 10000;
+}
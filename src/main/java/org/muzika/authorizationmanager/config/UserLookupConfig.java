@@ -0,0 +1,13 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "user.lookup")
+@Data
+public class UserLookupConfig {
+    // Maximum ids per POST /users/lookup request
+    private int maxIds = 500;
+}
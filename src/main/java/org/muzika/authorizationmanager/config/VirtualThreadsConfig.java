@@ -0,0 +1,17 @@
+package org.muzika.authorizationmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "virtual-threads")
+@Data
+public class VirtualThreadsConfig {
+    // Connections checked out at once when spring.threads.virtual.enabled=true, 0 means the Hikari pool size
+    private int maxConcurrentConnections = 0;
+    // Time a connection checkout waits for a permit before the request is rejected with 503
+    private long acquireTimeoutMillis = 2000;
+    // Value of the Retry-After header sent with rejected requests
+    private int retryAfterSeconds = 1;
+}
@@ -7,13 +7,25 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.muzika.authorizationmanager.dto.*;
 import org.muzika.authorizationmanager.entities.User;
 import org.muzika.authorizationmanager.services.AuthorizationService;
+import org.muzika.authorizationmanager.services.RefreshTokenService;
+import org.muzika.authorizationmanager.services.TokenIntrospectionService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,9 +35,15 @@ import java.util.UUID;
 public class AuthorizationController {
 
     private final AuthorizationService authorizationService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenIntrospectionService tokenIntrospectionService;
 
-    public AuthorizationController(AuthorizationService authorizationService) {
+    public AuthorizationController(AuthorizationService authorizationService,
+                                   RefreshTokenService refreshTokenService,
+                                   TokenIntrospectionService tokenIntrospectionService) {
         this.authorizationService = authorizationService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenIntrospectionService = tokenIntrospectionService;
     }
 
     @PostMapping({"/user", "/api/auth/user"})
@@ -80,6 +98,10 @@ public class AuthorizationController {
             responseCode = "401",
             description = "Unauthorized (invalid credentials)"
         ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many login attempts for this username or client"
+        ),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error"
@@ -87,26 +109,171 @@ public class AuthorizationController {
     })
     public ResponseEntity<LoginResponse> login(
         @Parameter(description = "Login credentials", required = true)
-        @RequestBody LoginRequest request) {
-        String token = authorizationService.authenticateUser(
+        @RequestBody LoginRequest request,
+        HttpServletRequest httpRequest) {
+        LoginResponse response = authorizationService.authenticateUser(
             request.getUsername(),
-            request.getPassword()
+            request.getPassword(),
+            httpRequest.getRemoteAddr()
         );
 
-        Optional<User> userOpt = authorizationService.getUserByUsername(request.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping({"/refresh", "/api/auth/refresh"})
+    @Operation(
+        summary = "Refresh access token",
+        description = "Exchange a refresh token for a new access token and a rotated refresh token. "
+            + "Reusing a refresh token revokes every token issued from the same login"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tokens refreshed",
+            content = @Content(schema = @Schema(implementation = TokenResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized (unknown, expired, reused or revoked refresh token)"
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error"
+        )
+    })
+    public ResponseEntity<TokenResponse> refresh(
+        @Parameter(description = "Refresh token", required = true)
+        @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(refreshTokenService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping({"/logout-all", "/api/auth/logout-all"})
+    @Operation(
+        summary = "Log out everywhere",
+        description = "Revokes every refresh token of the authenticated user, and every access token issued "
+            + "to the user so far, on all instances"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "204",
+            description = "All sessions ended (No Content)"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized"
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error"
+        )
+    })
+    public ResponseEntity<Void> logoutAll(Principal principal) {
+        authorizationService.logoutAll(principal.getName());
+        return ResponseEntity.noContent().build();
+    }
 
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    @PostMapping({"/introspect", "/api/auth/introspect"})
+    @Operation(
+        summary = "Introspect access tokens",
+        description = "Validate a batch of access tokens in one call. Returns per-token validity, subject, "
+            + "expiry and revocation status in request order"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Introspection results",
+            content = @Content(schema = @Schema(implementation = IntrospectionResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Bad request (too many tokens)"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized"
+        )
+    })
+    public ResponseEntity<IntrospectionResponse> introspect(
+        @Parameter(description = "Tokens to introspect", required = true)
+        @RequestBody IntrospectionRequest request) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(request.getTokens()));
+    }
+
+    @GetMapping({"/user/{id}", "/api/auth/user/{id}"})
+    @Operation(
+        summary = "Get user",
+        description = "Get a user profile by UUID. Supports conditional requests: the ETag changes whenever the "
+            + "profile is updated, and If-None-Match with the current ETag returns 304 without a body"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "User found",
+            content = @Content(schema = @Schema(implementation = UserResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Not modified since the ETag in If-None-Match"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "User not found"
+        )
+    })
+    public ResponseEntity<UserResponse> getUser(
+        @Parameter(description = "User UUID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
+        @PathVariable UUID id,
+        WebRequest webRequest) {
+        Optional<User> user = authorizationService.getUserById(id);
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
 
-        User user = userOpt.get();
-        LoginResponse response = new LoginResponse();
-        response.setToken(token);
-        response.setUserId(user.getId());
-        response.setUsername(user.getUsername());
-        response.setEmail(user.getEmail());
+        String etag = etag(user.get());
+        if (webRequest.checkNotModified(etag)) {
+            // Status 304 and the ETag header are already set
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .body(convertToResponse(user.get()));
+    }
 
-        return ResponseEntity.ok(response);
+    @PostMapping({"/users/lookup", "/api/auth/users/lookup"})
+    @Operation(
+        summary = "Look up users",
+        description = "Resolve many user UUIDs in one call. Users are returned in request order; unknown ids are listed "
+            + "in notFound"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lookup results",
+            content = @Content(schema = @Schema(implementation = UserLookupResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Bad request (too many ids or a null id)"
+        )
+    })
+    public ResponseEntity<UserLookupResponse> lookupUsers(
+        @Parameter(description = "User UUIDs to resolve", required = true)
+        @RequestBody UserLookupRequest request) {
+        List<UUID> ids = request.getIds() != null ? request.getIds() : List.of();
+        Map<UUID, User> users = authorizationService.getUsersByIds(ids);
+
+        List<UserResponse> found = new ArrayList<>(users.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            User user = users.get(id);
+            if (user != null) {
+                found.add(convertToResponse(user));
+            } else {
+                notFound.add(id);
+            }
+        }
+        return ResponseEntity.ok(new UserLookupResponse(found, notFound));
     }
 
     @DeleteMapping("/user/{id}")
@@ -135,6 +302,12 @@ public class AuthorizationController {
         return ResponseEntity.noContent().build();
     }
 
+    // Version of the profile; updatedAt changes on every write of the row
+    private static String etag(User user) {
+        LocalDateTime version = user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+        return "\"" + Long.toHexString(version.toEpochSecond(ZoneOffset.UTC)) + "." + Integer.toHexString(version.getNano()) + "\"";
+    }
+
     private UserResponse convertToResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
@@ -0,0 +1,43 @@
+package org.muzika.authorizationmanager.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.muzika.authorizationmanager.services.JwtService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@Tag(name = "Keys", description = "Public keys for verifying issued tokens")
+public class JwksController {
+
+    private final JwtService jwtService;
+
+    public JwksController(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @GetMapping({"/.well-known/jwks.json", "/api/auth/.well-known/jwks.json"})
+    @Operation(
+        summary = "JSON Web Key Set",
+        description = "ES256 public keys, selected by the kid header of a token. Cacheable; during a key "
+            + "rotation both the old and the new key are listed"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Key set",
+        content = @Content(schema = @Schema(implementation = Map.class))
+    )
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+            .body(jwtService.getJwks());
+    }
+}
@@ -0,0 +1,61 @@
+package org.muzika.authorizationmanager.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.muzika.authorizationmanager.services.UserDirectoryPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@Tag(name = "User Directory", description = "Admin endpoints for the compacted user-directory topic")
+public class UserDirectoryController {
+
+    private final UserDirectoryPublisher userDirectoryPublisher;
+
+    public UserDirectoryController(UserDirectoryPublisher userDirectoryPublisher) {
+        this.userDirectoryPublisher = userDirectoryPublisher;
+    }
+
+    @PostMapping({"/admin/user-directory/snapshot", "/api/auth/admin/user-directory/snapshot"})
+    @Operation(
+        summary = "Publish a user directory snapshot",
+        description = "Republishes every existing user to the user-directory topic through the outbox. "
+            + "Runs in the background; requires ROLE_ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Snapshot started"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "User directory publishing is disabled"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized"
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden (not an admin)"
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A snapshot is already running on this instance"
+        )
+    })
+    public ResponseEntity<Map<String, String>> startSnapshot() {
+        if (!userDirectoryPublisher.startSnapshot()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "A user directory snapshot is already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "User directory snapshot started"));
+    }
+}
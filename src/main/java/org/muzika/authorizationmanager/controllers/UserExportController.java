@@ -0,0 +1,57 @@
+package org.muzika.authorizationmanager.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.muzika.authorizationmanager.services.UserExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@Tag(name = "User Export", description = "Admin endpoints for reconciliation and backfills")
+public class UserExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final Logger logger = LoggerFactory.getLogger(UserExportController.class);
+
+    private final UserExportService userExportService;
+
+    public UserExportController(UserExportService userExportService) {
+        this.userExportService = userExportService;
+    }
+
+    @GetMapping(value = {"/admin/users/export", "/api/auth/admin/users/export"}, produces = "application/x-ndjson")
+    @Operation(
+        summary = "Export all users",
+        description = "Streams every user as NDJSON (one UserResponse per line) ordered by createdAt and id. "
+            + "The body is written incrementally; requires ROLE_ADMIN"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "NDJSON stream of users"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized"
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden (not an admin)"
+        )
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> {
+            long exported = userExportService.export(out);
+            logger.info("Exported {} users", exported);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
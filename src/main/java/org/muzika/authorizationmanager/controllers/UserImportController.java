@@ -0,0 +1,60 @@
+package org.muzika.authorizationmanager.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.muzika.authorizationmanager.dto.BulkImportResponse;
+import org.muzika.authorizationmanager.services.UserImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@Tag(name = "User Import", description = "Bulk user migration endpoints")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @PostMapping(value = {"/users/import", "/api/auth/users/import"}, consumes = "application/x-ndjson")
+    @Operation(
+        summary = "Bulk import users",
+        description = "Stream of CreateUserRequest JSON objects, one per line. Records are validated, hashed and "
+            + "inserted in batches; invalid or duplicate records are reported without aborting the import"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import finished (see failures for rejected records)",
+            content = @Content(schema = @Schema(implementation = BulkImportResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized"
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden (not an admin)"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Password hashing pool saturated; chunks imported so far are kept, retry after Retry-After"
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error"
+        )
+    })
+    public ResponseEntity<BulkImportResponse> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+}
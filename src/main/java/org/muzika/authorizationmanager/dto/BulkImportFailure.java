@@ -0,0 +1,21 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A record of a bulk import that was not imported")
+public class BulkImportFailure {
+    @Schema(description = "1-based line number in the NDJSON input", example = "42", required = true)
+    private long line;
+
+    @Schema(description = "Username of the record, if it could be parsed", example = "johndoe")
+    private String username;
+
+    @Schema(description = "Why the record was rejected", example = "Username already exists: johndoe", required = true)
+    private String reason;
+}
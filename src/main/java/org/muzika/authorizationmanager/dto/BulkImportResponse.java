@@ -0,0 +1,23 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "Outcome of a bulk user import")
+public class BulkImportResponse {
+    @Schema(description = "Non-empty lines read from the input", example = "100000", required = true)
+    private long received;
+
+    @Schema(description = "Users created", example = "99990", required = true)
+    private long imported;
+
+    @Schema(description = "Records rejected", example = "10", required = true)
+    private long failed;
+
+    @Schema(description = "Rejected records (capped, see failed for the total)")
+    private List<BulkImportFailure> failures = new ArrayList<>();
+}
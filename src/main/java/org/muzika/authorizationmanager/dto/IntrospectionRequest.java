@@ -0,0 +1,14 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Batch of access tokens to introspect")
+public class IntrospectionRequest {
+    @ArraySchema(schema = @Schema(description = "JWT access token", example = "eyJhbGciOiJFUzI1NiIsImtpZCI6ImsxIn0..."))
+    private List<String> tokens;
+}
@@ -0,0 +1,16 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Per-token introspection results, in request order")
+public class IntrospectionResponse {
+    private List<TokenIntrospection> results;
+}
@@ -10,6 +10,12 @@ import java.util.UUID;
 public class LoginResponse {
     @Schema(description = "JWT authentication token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...", required = true)
     private String token;
+
+    @Schema(description = "Access token lifetime in seconds", example = "900", required = true)
+    private long expiresIn;
+
+    @Schema(description = "Opaque refresh token used to obtain new access tokens without the password", example = "Qm9vdHN0cmFwLXJlZnJlc2gtdG9rZW4...", required = true)
+    private String refreshToken;
     
     @Schema(description = "User UUID", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
     private UUID userId;
@@ -0,0 +1,11 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Request to exchange a refresh token for a new token pair")
+public class RefreshTokenRequest {
+    @Schema(description = "Refresh token from the last login or refresh", example = "Qm9vdHN0cmFwLXJlZnJlc2gtdG9rZW4...", required = true)
+    private String refreshToken;
+}
@@ -0,0 +1,20 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Introspection result for one token, in the order of the request")
+public class TokenIntrospection {
+    @Schema(description = "Token is correctly signed, unexpired and not revoked", example = "true", required = true)
+    private boolean active;
+
+    @Schema(description = "Subject (username), present when the signature is valid", example = "johndoe")
+    private String sub;
+
+    @Schema(description = "Expiry as seconds since the epoch, present when the signature is valid", example = "1735689600")
+    private Long exp;
+
+    @Schema(description = "Token is validly signed but its user no longer exists", example = "false", required = true)
+    private boolean revoked;
+}
@@ -0,0 +1,17 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "New access token and rotated refresh token")
+public class TokenResponse {
+    @Schema(description = "JWT access token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...", required = true)
+    private String token;
+
+    @Schema(description = "Access token lifetime in seconds", example = "900", required = true)
+    private long expiresIn;
+
+    @Schema(description = "Replacement refresh token; the one presented is no longer valid", example = "Qm9vdHN0cmFwLXJlZnJlc2gtdG9rZW4...", required = true)
+    private String refreshToken;
+}
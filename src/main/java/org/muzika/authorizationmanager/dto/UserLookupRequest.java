@@ -0,0 +1,15 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Schema(description = "User ids to resolve in one call")
+public class UserLookupRequest {
+    @ArraySchema(schema = @Schema(description = "User UUID", example = "550e8400-e29b-41d4-a716-446655440000"))
+    private List<UUID> ids;
+}
@@ -0,0 +1,21 @@
+package org.muzika.authorizationmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resolved users in request order, and the ids that do not exist")
+public class UserLookupResponse {
+    private List<UserResponse> users;
+
+    @ArraySchema(schema = @Schema(description = "Requested id with no user"))
+    private List<UUID> notFound;
+}
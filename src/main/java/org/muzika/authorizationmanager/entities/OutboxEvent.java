@@ -0,0 +1,75 @@
+package org.muzika.authorizationmanager.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Kafka message written in the same transaction as the state change it describes
+ * and published afterwards by the outbox relay.
+ */
+@Entity
+@Data
+@Table(name = "user_outbox", indexes = {
+    @Index(name = "idx_user_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_user_outbox_key", columnList = "topic, message_key, created_at")
+})
+public class OutboxEvent {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        // Gave up after outbox.relay.max-attempts; holds back later events for its key until
+        // it is set back to PENDING (or to SENT to skip it)
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (status == null) {
+            status = Status.PENDING;
+        }
+    }
+}
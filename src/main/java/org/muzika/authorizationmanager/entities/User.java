@@ -9,16 +9,24 @@ import java.util.UUID;
 @Entity
 @Data
 @Table(name = "usersAuth", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "username")
+    @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+}, indexes = {
+    // Keyset order of the user export
+    @Index(name = "idx_users_auth_created_id", columnList = "created_at, id")
 })
 public class User {
 
+    // Named so a violation can be reported as a duplicate username or email
+    public static final String USERNAME_CONSTRAINT = "uk_users_auth_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_auth_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id")
     private UUID id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
@@ -0,0 +1,29 @@
+package org.muzika.authorizationmanager.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Minimum epoch an access token of the user must carry. Only users whose tokens were ever
+ * revoked have a row.
+ */
+@Entity
+@Data
+@Table(name = "user_token_epochs", indexes = {
+    @Index(name = "idx_user_token_epochs_updated_at", columnList = "updated_at")
+})
+public class UserTokenEpoch {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long epoch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,7 @@
 package org.muzika.authorizationmanager.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,7 +22,8 @@ public class GlobalExceptionHandler {
         error.put("timestamp", LocalDateTime.now());
 
         // Check if it's an authentication error
-        if (ex.getMessage() != null && ex.getMessage().contains("Invalid username or password")) {
+        if (ex.getMessage() != null && (ex.getMessage().contains("Invalid username or password")
+                || ex.getMessage().contains("Invalid refresh token"))) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
 
@@ -32,8 +35,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        // Unique constraint hit outside the paths that translate it themselves
+        if (UniqueConstraintViolations.isUniqueViolation(ex)) {
+            error.put("message", "Resource already exists or conflicts with existing data");
+            error.put("status", HttpStatus.CONFLICT.value());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        // NOT NULL, length and other checks reject the input itself
+        error.put("message", "Request violates a data constraint");
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceBusyException(ServiceBusyException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+        // A busy connection checkout arrives wrapped, e.g. in CannotCreateTransactionException
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceBusyException busy) {
+                return handleServiceBusyException(busy);
+            }
+        }
         Map<String, Object> error = new HashMap<>();
         error.put("message", "Internal server error: " + ex.getMessage());
         error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
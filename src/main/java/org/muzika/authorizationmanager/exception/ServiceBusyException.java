@@ -0,0 +1,17 @@
+package org.muzika.authorizationmanager.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the service sheds load instead of queueing more work; mapped to 503 with Retry-After.
+ */
+@Getter
+public class ServiceBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
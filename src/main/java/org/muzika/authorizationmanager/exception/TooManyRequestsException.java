@@ -0,0 +1,17 @@
+package org.muzika.authorizationmanager.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a client exceeds its request rate; mapped to 429 with Retry-After.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public TooManyRequestsException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,34 @@
+package org.muzika.authorizationmanager.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Locale;
+
+/**
+ * Tells unique-key violations (a conflict with existing data) apart from other integrity
+ * violations such as NOT NULL or length checks, which are bad input.
+ */
+public final class UniqueConstraintViolations {
+
+    // Prefix of the constraint names declared on the entities
+    private static final String UNIQUE_CONSTRAINT_PREFIX = "uk_";
+
+    private UniqueConstraintViolations() {
+    }
+
+    public static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        || (name != null && name.toLowerCase(Locale.ROOT).contains(UNIQUE_CONSTRAINT_PREFIX));
+            }
+        }
+        return false;
+    }
+}
@@ -1,51 +1,107 @@
 package org.muzika.authorizationmanager.filters;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.muzika.authorizationmanager.config.AdminConfig;
 import org.muzika.authorizationmanager.services.JwtService;
+import org.muzika.authorizationmanager.services.TokenEpochs;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+
     private final JwtService jwtService;
+    private final Set<String> adminUserIds;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
-    public JwtAuthenticationFilter(JwtService jwtService) {
+    public JwtAuthenticationFilter(JwtService jwtService, AdminConfig adminConfig) {
         this.jwtService = jwtService;
+        this.adminUserIds = adminConfig.getUserIds().stream().map(UUID::toString).collect(Collectors.toUnmodifiableSet());
     }
 
+    /**
+     * Only captures the bearer token. It is verified the first time something reads the
+     * SecurityContext, which permit-all endpoints (login, health, preflights) never do.
+     */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            
-            if (jwtService.validateToken(token)) {
-                String username = jwtService.extractUsername(token);
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        username,
-                        null,
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                    );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+            strategy.setDeferredContext(new BearerTokenContext(
+                    authHeader.substring(BEARER_PREFIX.length()), request, strategy));
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // Tokens without a uid claim (issued before user ids were embedded) are never admin
+    private boolean isAdmin(Claims claims) {
+        String userId = claims.get(TokenEpochs.USER_ID_CLAIM, String.class);
+        return userId != null && adminUserIds.contains(userId);
+    }
+
+    /**
+     * Resolves the context once per request: the token's principal when it verifies, otherwise
+     * the context that was in place before the filter ran.
+     */
+    private final class BearerTokenContext implements Supplier<SecurityContext> {
+
+        private final String token;
+        private final HttpServletRequest request;
+        private final SecurityContextHolderStrategy strategy;
+        private final Supplier<SecurityContext> previous;
+        private SecurityContext resolved;
+
+        BearerTokenContext(String token, HttpServletRequest request, SecurityContextHolderStrategy strategy) {
+            this.token = token;
+            this.request = request;
+            this.strategy = strategy;
+            this.previous = strategy.getDeferredContext();
+        }
+
+        @Override
+        public SecurityContext get() {
+            if (resolved == null) {
+                // Single verify-and-extract call, served from JwtService's cache for repeat tokens
+                resolved = jwtService.verifyToken(token)
+                        .map(claims -> {
+                            UsernamePasswordAuthenticationToken authentication =
+                                    new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+                                            isAdmin(claims) ? ADMIN_AUTHORITIES : USER_AUTHORITIES);
+                            authentication.setDetails(detailsSource.buildDetails(request));
+                            SecurityContext context = strategy.createEmptyContext();
+                            context.setAuthentication(authentication);
+                            return context;
+                        })
+                        .orElseGet(previous);
+            }
+            return resolved;
+        }
+    }
 }
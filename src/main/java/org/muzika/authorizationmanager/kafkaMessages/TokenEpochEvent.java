@@ -0,0 +1,21 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The user's tokens were revoked; every instance rejects access tokens with an older epoch.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenEpochEvent {
+    private UUID userId;
+    private long epoch;
+    // updated_at of the user_token_epochs row; null in events from older instances
+    private LocalDateTime revokedAt;
+}
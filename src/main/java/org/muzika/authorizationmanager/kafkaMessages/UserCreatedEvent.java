@@ -12,5 +12,7 @@ import java.util.UUID;
 public class UserCreatedEvent {
     private UUID userId;
     private String username;
+    // Lets consumers use the event without querying the user
+    private String email;
 }
 
@@ -0,0 +1,86 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Reads {@link UserCreatedEvent} in the binary format of {@link UserCreatedEventSerializer} and,
+ * for records written before the switch or by JSON producers, in the JSON format.
+ * Consumers can deploy this before producers switch to binary.
+ */
+public class UserCreatedEventDeserializer implements Deserializer<UserCreatedEvent> {
+
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(UserCreatedEvent.class);
+
+    @Override
+    public UserCreatedEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (data[0] == '{') {
+            try {
+                return JSON_READER.readValue(data);
+            } catch (IOException e) {
+                throw new SerializationException("Invalid JSON UserCreatedEvent on " + topic, e);
+            }
+        }
+        if (data[0] != UserCreatedEventSerializer.SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported UserCreatedEvent schema version " + data[0] + " on " + topic);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+            int flags = buffer.get();
+            UserCreatedEvent event = new UserCreatedEvent();
+            if ((flags & UserCreatedEventSerializer.USER_ID_PRESENT) != 0) {
+                event.setUserId(new UUID(buffer.getLong(), buffer.getLong()));
+            }
+            if ((flags & UserCreatedEventSerializer.USERNAME_PRESENT) != 0) {
+                event.setUsername(getString(buffer, topic));
+            }
+            if ((flags & UserCreatedEventSerializer.EMAIL_PRESENT) != 0) {
+                event.setEmail(getString(buffer, topic));
+            }
+            return event;
+        } catch (BufferUnderflowException e) {
+            throw new SerializationException("Truncated UserCreatedEvent on " + topic, e);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer, String topic) {
+        int length = getVarint(buffer);
+        // A corrupt five-byte varint can overflow into a negative length
+        if (length < 0) {
+            throw new SerializationException("Invalid string length " + length + " in UserCreatedEvent on " + topic);
+        }
+        if (length > buffer.remaining()) {
+            throw new SerializationException("Truncated UserCreatedEvent on " + topic);
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in UserCreatedEvent");
+    }
+}
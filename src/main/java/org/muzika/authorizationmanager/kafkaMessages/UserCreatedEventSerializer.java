@@ -0,0 +1,82 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of {@link UserCreatedEvent}, no schema registry needed.
+ * <pre>
+ * byte     schema version (1)
+ * byte     flags: bit 0 userId present, bit 1 username present, bit 2 email present
+ * 16 bytes userId (most then least significant bits, big endian), if present
+ * varint   username length in bytes, then the UTF-8 bytes, if present
+ * varint   email length in bytes, then the UTF-8 bytes, if present
+ * </pre>
+ * Readers that predate the email field ignore it, since it follows every field they read.
+ * The first byte can never be '{', so {@link UserCreatedEventDeserializer} also reads JSON payloads.
+ */
+public class UserCreatedEventSerializer implements Serializer<UserCreatedEvent> {
+
+    static final byte SCHEMA_VERSION = 1;
+    static final int USER_ID_PRESENT = 1;
+    static final int USERNAME_PRESENT = 1 << 1;
+    static final int EMAIL_PRESENT = 1 << 2;
+
+    @Override
+    public byte[] serialize(String topic, UserCreatedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        byte[] username = utf8(event.getUsername());
+        byte[] email = utf8(event.getEmail());
+        int flags = (event.getUserId() != null ? USER_ID_PRESENT : 0)
+                | (username != null ? USERNAME_PRESENT : 0)
+                | (email != null ? EMAIL_PRESENT : 0);
+
+        int size = 2 + (event.getUserId() != null ? 16 : 0) + stringSize(username) + stringSize(email);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(SCHEMA_VERSION);
+        buffer.put((byte) flags);
+        if (event.getUserId() != null) {
+            buffer.putLong(event.getUserId().getMostSignificantBits());
+            buffer.putLong(event.getUserId().getLeastSignificantBits());
+        }
+        putString(buffer, username);
+        putString(buffer, email);
+        return buffer.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int stringSize(byte[] value) {
+        return value != null ? varintSize(value.length) + value.length : 0;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value != null) {
+            putVarint(buffer, value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,23 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Current state of a user on the compacted user-directory topic, keyed by user id.
+ * A deleted user is a record with the same key and a null value (tombstone).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDirectoryEntry {
+    private UUID userId;
+    private String username;
+    private String email;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A user row was written; every instance evicts the user from its in-memory cache.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserInvalidatedEvent {
+    private UUID userId;
+    private String username;
+}
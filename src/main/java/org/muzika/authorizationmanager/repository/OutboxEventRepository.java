@@ -0,0 +1,48 @@
+package org.muzika.authorizationmanager.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.muzika.authorizationmanager.entities.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Locks the next due events with SKIP LOCKED (lock timeout -2) so relays on
+     * several replicas drain disjoint batches. Only the oldest unsent event of each topic and key
+     * is eligible: an earlier event that is locked by another relay, waiting for a retry or FAILED
+     * holds back the later ones, so events for a key reach Kafka in the order they were written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.status = :status and e.nextAttemptAt <= :now"
+            + " and not exists (select p.id from OutboxEvent p"
+            + " where p.topic = e.topic and p.messageKey = e.messageKey and p.status <> :sent"
+            + " and (p.createdAt < e.createdAt or (p.createdAt = e.createdAt and p.id < e.id)))"
+            + " order by e.createdAt, e.id")
+    List<OutboxEvent> lockDue(@Param("status") OutboxEvent.Status status,
+                              @Param("sent") OutboxEvent.Status sent,
+                              @Param("now") LocalDateTime now,
+                              Limit limit);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxEvent.Status status);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = :status and e.sentAt < :before")
+    int deleteSentBefore(@Param("status") OutboxEvent.Status status, @Param("before") LocalDateTime before);
+}
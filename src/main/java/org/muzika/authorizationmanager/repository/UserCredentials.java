@@ -0,0 +1,18 @@
+package org.muzika.authorizationmanager.repository;
+
+import java.util.UUID;
+
+/**
+ * Closed projection of the columns needed to authenticate a user and answer the login call,
+ * read without hydrating a managed User entity.
+ */
+public interface UserCredentials {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getPassword();
+}
@@ -0,0 +1,21 @@
+package org.muzika.authorizationmanager.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Closed projection of the public user columns for the export; rows are not managed entities,
+ * so paging through the table does not grow the persistence context.
+ */
+public interface UserExportRow {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -1,19 +1,77 @@
 package org.muzika.authorizationmanager.repository;
 
+import jakarta.persistence.LockModeType;
 import org.muzika.authorizationmanager.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     
+    @Transactional(readOnly = true)
     Optional<User> findByUsername(String username);
+
+    @Transactional(readOnly = true)
+    Optional<UserCredentials> findCredentialsByUsername(String username);
     
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+
+    @Transactional(readOnly = true)
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Loads the users with a shared row lock, so a concurrent delete of one of them waits
+     * for the caller's transaction to commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    List<User> findAllByIdIn(Collection<UUID> ids);
+
+    /**
+     * First page of the export in (createdAt, id) order, served by idx_users_auth_created_id.
+     */
+    @Query("select u.id as id, u.username as username, u.email as email, u.createdAt as createdAt, "
+            + "u.updatedAt as updatedAt from User u order by u.createdAt, u.id")
+    List<UserExportRow> findExportPage(Limit limit);
+
+    /**
+     * Next export page after the last row of the previous one (keyset pagination, no OFFSET).
+     * The row-value comparison lets the database seek idx_users_auth_created_id to the start of the page.
+     */
+    @Query("select u.id as id, u.username as username, u.email as email, u.createdAt as createdAt, "
+            + "u.updatedAt as updatedAt from User u "
+            + "where (u.createdAt, u.id) > (:createdAt, :id) "
+            + "order by u.createdAt, u.id")
+    List<UserExportRow> findExportPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") UUID id,
+                                            Limit limit);
+
+    /**
+     * Replaces the password hash only if it still matches the one the caller read,
+     * so a background rehash never overwrites a concurrent password change.
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("id") UUID id,
+                                  @Param("currentPassword") String currentPassword,
+                                  @Param("newPassword") String newPassword);
 }
 
@@ -0,0 +1,37 @@
+package org.muzika.authorizationmanager.repository;
+
+import jakarta.persistence.LockModeType;
+import org.muzika.authorizationmanager.entities.UserTokenEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserTokenEpochRepository extends JpaRepository<UserTokenEpoch, UUID> {
+
+    /**
+     * Locks the user's row so concurrent revocations increment the epoch one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from UserTokenEpoch e where e.userId = :userId")
+    Optional<UserTokenEpoch> lockByUserId(@Param("userId") UUID userId);
+
+    List<UserTokenEpoch> findByUpdatedAtAfter(LocalDateTime after);
+
+    /**
+     * Drops rows of revocations old enough that every token they rejected has expired.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from UserTokenEpoch e where e.updatedAt < :before")
+    int deleteByUpdatedAtBefore(@Param("before") LocalDateTime before);
+}
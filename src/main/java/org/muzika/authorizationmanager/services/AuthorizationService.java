@@ -1,11 +1,23 @@
 package org.muzika.authorizationmanager.services;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.muzika.authorizationmanager.config.UserLookupConfig;
+import org.muzika.authorizationmanager.dto.LoginResponse;
 import org.muzika.authorizationmanager.entities.User;
+import org.muzika.authorizationmanager.exception.ServiceBusyException;
 import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEvent;
+import org.muzika.authorizationmanager.repository.UserCredentials;
 import org.muzika.authorizationmanager.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,83 +28,191 @@ public class AuthorizationService {
     private final UserRepository userRepository;
     private final PasswordService passwordService;
     private final JwtService jwtService;
-    private final KafkaProducerService kafkaProducerService;
-    private static final String USER_CREATED_TOPIC = "user-created";
+    private final RefreshTokenService refreshTokenService;
+    private final OutboxService outboxService;
+    private final LoginThrottle loginThrottle;
+    private final ReplicaReadGuard replicaReadGuard;
+    private final UserCache userCache;
+    private final UserDirectoryPublisher userDirectory;
+    private final TokenRevocationService tokenRevocation;
+    private final Counter loginSucceeded;
+    private final Counter loginUnknownUser;
+    private final Counter loginBadPassword;
+    private final Counter loginBusy;
+    static final String USER_CREATED_TOPIC = "user-created";
+    private final int maxLookupIds;
 
     public AuthorizationService(UserRepository userRepository, 
                            PasswordService passwordService,
                            JwtService jwtService,
-                           KafkaProducerService kafkaProducerService) {
+                           RefreshTokenService refreshTokenService,
+                           OutboxService outboxService,
+                           LoginThrottle loginThrottle,
+                           ReplicaReadGuard replicaReadGuard,
+                           UserCache userCache,
+                           UserDirectoryPublisher userDirectory,
+                           TokenRevocationService tokenRevocation,
+                           UserLookupConfig userLookupConfig,
+                           MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordService = passwordService;
         this.jwtService = jwtService;
-        this.kafkaProducerService = kafkaProducerService;
+        this.refreshTokenService = refreshTokenService;
+        this.outboxService = outboxService;
+        this.loginThrottle = loginThrottle;
+        this.replicaReadGuard = replicaReadGuard;
+        this.userCache = userCache;
+        this.userDirectory = userDirectory;
+        this.tokenRevocation = tokenRevocation;
+        this.maxLookupIds = userLookupConfig.getMaxIds();
+        this.loginSucceeded = loginCounter(meterRegistry, "success", "none");
+        this.loginUnknownUser = loginCounter(meterRegistry, "failure", "unknown_user");
+        this.loginBadPassword = loginCounter(meterRegistry, "failure", "bad_password");
+        this.loginBusy = loginCounter(meterRegistry, "failure", "busy");
     }
 
-    public User createUser(String username, String password, String email) {
-        // Validate username uniqueness
-        if (userRepository.existsByUsername(username)) {
-            throw new IllegalArgumentException("Username already exists: " + username);
-        }
-
-        // Validate email uniqueness if provided
-        if (email != null && !email.isEmpty() && userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email already exists: " + email);
-        }
-
-        // Validate username format (alphanumeric, 3-20 characters)
-        if (!username.matches("^[a-zA-Z0-9]{3,20}$")) {
-            throw new IllegalArgumentException("Username must be alphanumeric and 3-20 characters long");
-        }
+    private static Counter loginCounter(MeterRegistry meterRegistry, String outcome, String reason) {
+        return Counter.builder("auth.login")
+                .description("Login attempts by outcome and failure reason")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 
-        // Validate password strength (minimum 6 characters)
-        if (password == null || password.length() < 6) {
-            throw new IllegalArgumentException("Password must be at least 6 characters long");
-        }
+    /**
+     * Creates the account with a single insert; uniqueness of username and email comes from the
+     * unique constraints, so concurrent signups for the same name cannot both succeed.
+     */
+    public User createUser(String username, String password, String email) {
+        UserValidator.validateNewUser(username, password);
+        email = UserValidator.normalizeEmail(email);
 
         User user = new User();
         user.setUsername(username);
         user.setPassword(passwordService.hashPassword(password));
         user.setEmail(email);
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            // Flush now so a duplicate surfaces here, not at commit
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw UserValidator.duplicateUser(e, username, email);
+        }
+        replicaReadGuard.recordWrite(savedUser.getId());
+        replicaReadGuard.recordWrite(savedUser.getUsername());
+        // Drops a cached mapping of the username to a previously deleted account, on every replica
+        userCache.invalidate(savedUser.getId(), savedUser.getUsername());
 
-        // Send Kafka event for user creation
-        UserCreatedEvent event = new UserCreatedEvent(savedUser.getId(), savedUser.getUsername());
-        kafkaProducerService.sendUserCreatedEvent(USER_CREATED_TOPIC, savedUser.getUsername(), event);
+        // Kafka event for user creation is written to the outbox in this transaction and published by OutboxRelay
+        UserCreatedEvent event = new UserCreatedEvent(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
+        outboxService.enqueue(USER_CREATED_TOPIC, savedUser.getUsername(), event);
+        userDirectory.upsert(savedUser);
 
         return savedUser;
     }
 
-    public String authenticateUser(String username, String password) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        
-        if (userOpt.isEmpty()) {
+    /**
+     * Authenticates with a single credentials lookup and returns the token together with the profile.
+     * Runs outside a transaction so no connection is held while BCrypt runs; the lookup itself
+     * uses the repository's short read-only transaction, which is served by a replica when routing is enabled.
+     * Attempts are throttled per username and per client address first.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LoginResponse authenticateUser(String username, String password, String clientAddress) {
+        // Over-limit attempts are rejected before any lookup or hashing work
+        loginThrottle.acquire(username, clientAddress);
+
+        UserCredentials credentials = replicaReadGuard.read(username, () -> userRepository.findCredentialsByUsername(username))
+            .orElseThrow(() -> {
+                loginUnknownUser.increment();
+                return new IllegalArgumentException("Invalid username or password");
+            });
+
+        boolean passwordMatches;
+        try {
+            passwordMatches = passwordService.verifyPassword(password, credentials.getPassword());
+        } catch (ServiceBusyException e) {
+            loginBusy.increment();
+            throw e;
+        }
+        if (!passwordMatches) {
+            loginBadPassword.increment();
             throw new IllegalArgumentException("Invalid username or password");
         }
 
-        User user = userOpt.get();
-        
-        if (!passwordService.verifyPassword(password, user.getPassword())) {
-            throw new IllegalArgumentException("Invalid username or password");
+        // Transparently move outdated hashes (old algorithm or cost) to the current encoding
+        if (passwordService.needsRehash(credentials.getPassword())) {
+            UUID userId = credentials.getId();
+            String currentHash = credentials.getPassword();
+            passwordService.rehashInBackground(password,
+                newHash -> userRepository.updatePasswordIfUnchanged(userId, currentHash, newHash));
         }
 
-        return jwtService.generateToken(username);
+        LoginResponse response = new LoginResponse();
+        long epoch = tokenRevocation.currentEpoch(credentials.getId());
+        response.setToken(jwtService.generateToken(credentials.getId(), credentials.getUsername(), epoch));
+        response.setExpiresIn(jwtService.getAccessTokenLifetimeSeconds());
+        response.setRefreshToken(refreshTokenService.issue(credentials.getId(), credentials.getUsername()));
+        response.setUserId(credentials.getId());
+        response.setUsername(credentials.getUsername());
+        response.setEmail(credentials.getEmail());
+        loginSucceeded.increment();
+        return response;
     }
 
     public void deleteUser(UUID userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new IllegalArgumentException("User not found with id: " + userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+        userRepository.delete(user);
+        replicaReadGuard.recordWrite(user.getId());
+        replicaReadGuard.recordWrite(user.getUsername());
+        userCache.invalidate(user.getId(), user.getUsername());
+        userDirectory.remove(user.getId());
+        refreshTokenService.revokeAll(userId);
+        tokenRevocation.revokeAccessTokens(userId);
+    }
+
+    /**
+     * Ends every session of the user: refresh tokens are revoked and issued access tokens stop
+     * verifying on all instances.
+     */
+    public void logoutAll(String username) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new IllegalArgumentException("User not found with username: " + username));
+        refreshTokenService.revokeAll(user.getId());
+        tokenRevocation.revokeAccessTokens(user.getId());
     }
 
+    /**
+     * Cache hits need no connection; a miss is loaded in the repository's own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<User> getUserById(UUID userId) {
-        return userRepository.findById(userId);
+        return userCache.getById(userId, id -> replicaReadGuard.read(id, () -> userRepository.findById(id)));
+    }
+
+    /**
+     * Resolves a batch of ids with at most one IN query for those not in the user cache.
+     * Unknown ids are simply absent from the result. Misses go through the replica read guard
+     * like single lookups, so a user just written is not reported missing by a lagging replica.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<UUID, User> getUsersByIds(Collection<UUID> userIds) {
+        if (userIds.size() > maxLookupIds) {
+            throw new IllegalArgumentException("At most " + maxLookupIds + " ids can be looked up per request");
+        }
+        if (userIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("User ids must not be null");
+        }
+        return userCache.getAllById(new LinkedHashSet<>(userIds),
+            ids -> replicaReadGuard.readAll(ids, userRepository::findAllById));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCache.getByUsername(username,
+            name -> replicaReadGuard.read(name, () -> userRepository.findByUsername(name)));
     }
 }
 
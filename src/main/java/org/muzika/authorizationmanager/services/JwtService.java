@@ -1,58 +1,203 @@
 package org.muzika.authorizationmanager.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.muzika.authorizationmanager.config.JwtConfig;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
     private final JwtConfig jwtConfig;
-    private SecretKey secretKey;
+    private final TokenEpochs tokenEpochs;
+    private final JwtSigningKeys signingKeys;
+    // Verifies HS256 tokens without a kid that were issued before the switch to ES256; null once disabled
+    private final SecretKey legacySecretKey;
+    private final JwtParser jwtParser;
+    // Verified claims keyed by SHA-256 of the raw token, evicted once the token's exp passes
+    private final Cache<String, Claims> verifiedClaims;
+    private final Timer signTimer;
+    private final Timer verifyCachedTimer;
+    private final Timer verifySignatureTimer;
+    private final Timer verifyInvalidTimer;
+    private final Timer verifyRevokedTimer;
 
-    public JwtService(JwtConfig jwtConfig) {
+    public JwtService(JwtConfig jwtConfig, TokenEpochs tokenEpochs, MeterRegistry meterRegistry) {
         this.jwtConfig = jwtConfig;
-        this.secretKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.tokenEpochs = tokenEpochs;
+        this.signingKeys = JwtSigningKeys.load(jwtConfig);
+        this.legacySecretKey = jwtConfig.isAcceptLegacyHs256() && jwtConfig.getSecret() != null
+                ? Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8))
+                : null;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+                        return kid == null ? legacySecretKey : signingKeys.getVerificationKey(kid);
+                    }
+                })
+                .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getCacheMaxEntries())
+                .expireAfter(new ClaimsExpiry())
+                .build();
+
+        this.signTimer = Timer.builder("auth.jwt.sign")
+                .description("Time to build and sign an access token")
+                .register(meterRegistry);
+        this.verifyCachedTimer = verifyTimer(meterRegistry, "cached");
+        this.verifySignatureTimer = verifyTimer(meterRegistry, "verified");
+        this.verifyInvalidTimer = verifyTimer(meterRegistry, "invalid");
+        this.verifyRevokedTimer = verifyTimer(meterRegistry, "revoked");
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Time to verify an access token, by result (cached, verified, invalid or revoked)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param epoch the user's current token epoch, see {@link TokenRevocationService#currentEpoch}
+     */
+    public String generateToken(UUID userId, String username, long epoch) {
+        return signTimer.record(() -> buildToken(userId, username, epoch));
     }
 
-    public String generateToken(String username) {
+    private String buildToken(UUID userId, String username, long epoch) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtConfig.getExpiration());
 
         return Jwts.builder()
                 .subject(username)
+                .claim(TokenEpochs.USER_ID_CLAIM, userId.toString())
+                .claim(TokenEpochs.EPOCH_CLAIM, epoch)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(secretKey, Jwts.SIG.HS256)
+                .header().keyId(signingKeys.getActiveKeyId()).and()
+                .signWith(signingKeys.getSigningKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
+    /**
+     * Public verification keys as a JWK Set, for downstream services that verify tokens locally.
+     */
+    public Map<String, Object> getJwks() {
+        return signingKeys.getJwks();
+    }
+
+    public long getAccessTokenLifetimeSeconds() {
+        return jwtConfig.getExpiration() / 1000;
+    }
+
+    /**
+     * Verifies the token signature, expiry and epoch and returns its claims.
+     * Tokens seen before are served from the verified-claims cache without re-checking the signature;
+     * the epoch is checked on every call so revocations apply to cached tokens too.
+     */
+    public Optional<Claims> verifyToken(String token) {
+        return verify(token, true);
+    }
+
+    /**
+     * Signature and expiry only, for callers that report revocation separately.
+     */
+    public Optional<Claims> verifySignature(String token) {
+        return verify(token, false);
+    }
+
+    private Optional<Claims> verify(String token, boolean checkEpoch) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        String cacheKey = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(cacheKey);
+        Timer timer = verifyCachedTimer;
+        if (claims == null || !claims.getExpiration().after(new Date())) {
+            try {
+                claims = jwtParser.parseSignedClaims(token).getPayload();
+            } catch (JwtException | IllegalArgumentException e) {
+                verifyInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return Optional.empty();
+            }
+            timer = verifySignatureTimer;
+
+            // Only tokens with an expiry are cached, otherwise an entry could never be evicted by time
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(cacheKey, claims);
+            }
+        }
+
+        if (checkEpoch && !tokenEpochs.isCurrent(claims)) {
+            verifyRevokedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Optional.of(claims);
+    }
+
     public String extractUsername(String token) {
-        Claims claims = extractClaims(token);
-        return claims.getSubject();
+        return verifyToken(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
+    }
+
+    private static String digest(String token) {
         try {
-            extractClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
-
@@ -0,0 +1,146 @@
+package org.muzika.authorizationmanager.services;
+
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ES256 key set loaded from jwt.signing-keys. One key signs new tokens; every configured key
+ * verifies and is published in the JWKS, so keys can be rotated by adding the next key,
+ * switching jwt.active-key-id, and removing the old key once its tokens have expired.
+ */
+final class JwtSigningKeys {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtSigningKeys.class);
+
+    private final String activeKeyId;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    private JwtSigningKeys(String activeKeyId, PrivateKey signingKey, Map<String, PublicKey> verificationKeys) {
+        this.activeKeyId = activeKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+        this.jwks = buildJwks(verificationKeys);
+    }
+
+    static JwtSigningKeys load(JwtConfig config) {
+        if (config.getSigningKeys().isEmpty()) {
+            if (!config.isAllowEphemeralKey()) {
+                throw new IllegalStateException("No jwt.signing-keys configured; an ephemeral key is only"
+                        + " allowed with the local profile (jwt.allow-ephemeral-key=true)");
+            }
+            return ephemeral();
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+            Map<String, PrivateKey> signingKeys = new LinkedHashMap<>();
+            for (JwtConfig.SigningKey key : config.getSigningKeys()) {
+                verificationKeys.put(key.getKid(), keyFactory.generatePublic(new X509EncodedKeySpec(decode(key.getPublicKey()))));
+                if (key.getPrivateKey() != null && !key.getPrivateKey().isBlank()) {
+                    signingKeys.put(key.getKid(), keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(key.getPrivateKey()))));
+                }
+            }
+
+            String activeKeyId = config.getActiveKeyId();
+            if (activeKeyId == null || activeKeyId.isBlank()) {
+                activeKeyId = signingKeys.keySet().stream().findFirst()
+                        .orElseThrow(() -> new IllegalStateException("No JWT signing key has a private key"));
+            }
+            PrivateKey signingKey = signingKeys.get(activeKeyId);
+            if (signingKey == null) {
+                throw new IllegalStateException("Active JWT key has no private key: " + activeKeyId);
+            }
+            return new JwtSigningKeys(activeKeyId, signingKey, verificationKeys);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT signing key configuration: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Local development fallback. Tokens do not survive a restart and are not valid on other replicas.
+     */
+    private static JwtSigningKeys ephemeral() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID();
+            logger.warn("No jwt.signing-keys configured, signing with ephemeral key {}", kid);
+            Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+            verificationKeys.put(kid, keyPair.getPublic());
+            return new JwtSigningKeys(kid, keyPair.getPrivate(), verificationKeys);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate JWT signing key", e);
+        }
+    }
+
+    String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    PublicKey getVerificationKey(String kid) {
+        return verificationKeys.get(kid);
+    }
+
+    Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    private static Map<String, Object> buildJwks(Map<String, PublicKey> verificationKeys) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> {
+            ECPublicKey ecKey = (ECPublicKey) key;
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", kid);
+            jwk.put("x", coordinate(ecKey.getW().getAffineX()));
+            jwk.put("y", coordinate(ecKey.getW().getAffineY()));
+            keys.add(Collections.unmodifiableMap(jwk));
+        });
+        return Map.of("keys", List.copyOf(keys));
+    }
+
+    // JWK coordinates are fixed-length (32 bytes for P-256) unsigned big-endian values
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    // Accepts PEM or bare base64 DER
+    private static byte[] decode(String key) {
+        String base64 = key.replaceAll("-----(BEGIN|END)[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
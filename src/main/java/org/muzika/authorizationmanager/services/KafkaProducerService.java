@@ -1,31 +1,139 @@
 package org.muzika.authorizationmanager.services;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.muzika.authorizationmanager.kafkaMessages.TokenEpochEvent;
 import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEvent;
+import org.muzika.authorizationmanager.kafkaMessages.UserDirectoryEntry;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class KafkaProducerService {
 
     private final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
 
-    @Autowired
-    KafkaTemplate<String, UserCreatedEvent> userCreatedKafka;
+    private final KafkaTemplate<String, UserCreatedEvent> userCreatedKafka;
+    private final KafkaTemplate<String, UserInvalidatedEvent> userInvalidationKafka;
+    private final KafkaTemplate<String, UserDirectoryEntry> userDirectoryKafka;
+    private final KafkaTemplate<String, TokenEpochEvent> tokenEpochKafka;
+    private final MeterRegistry meterRegistry;
+    // Registered once per topic instead of looked up on every acknowledgement
+    private final Map<String, SendTimers> sendTimers = new ConcurrentHashMap<>();
+    private final Meter.MeterProvider<Counter> sendFailures;
+
+    public KafkaProducerService(KafkaTemplate<String, UserCreatedEvent> userCreatedKafka,
+                                KafkaTemplate<String, UserInvalidatedEvent> userInvalidationKafka,
+                                KafkaTemplate<String, UserDirectoryEntry> userDirectoryKafka,
+                                KafkaTemplate<String, TokenEpochEvent> tokenEpochKafka,
+                                MeterRegistry meterRegistry) {
+        this.userCreatedKafka = userCreatedKafka;
+        this.userInvalidationKafka = userInvalidationKafka;
+        this.userDirectoryKafka = userDirectoryKafka;
+        this.tokenEpochKafka = tokenEpochKafka;
+        this.meterRegistry = meterRegistry;
+        this.sendFailures = Counter.builder("auth.kafka.send.failures")
+                .description("Kafka sends that failed, by exception type")
+                .withRegistry(meterRegistry);
+    }
 
-    public void sendUserCreatedEvent(String topic, String username, UserCreatedEvent event) {
+    public CompletableFuture<SendResult<String, UserCreatedEvent>> sendUserCreatedEvent(String topic, String username, UserCreatedEvent event) {
+        long start = System.nanoTime();
         var future = userCreatedKafka.send(topic, username, event);
+        record(future, topic, start);
         future.whenComplete((r, e) -> {
             if (e != null) {
                 logger.error("Failed to send user created event: " + e.getMessage());
-                future.completeExceptionally(e);
             } else {
                 logger.info("User created event sent successfully: " + event.toString());
-                future.complete(r);
             }
         });
+        return future;
+    }
+
+    public CompletableFuture<SendResult<String, UserInvalidatedEvent>> sendUserInvalidatedEvent(String topic, String key, UserInvalidatedEvent event) {
+        long start = System.nanoTime();
+        var future = userInvalidationKafka.send(topic, key, event);
+        record(future, topic, start);
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                logger.error("Failed to send user invalidation event: " + e.getMessage());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Publishes the user's current state; a null entry publishes a tombstone for the key.
+     */
+    public CompletableFuture<SendResult<String, UserDirectoryEntry>> sendUserDirectoryEntry(String topic, String key, UserDirectoryEntry entry) {
+        long start = System.nanoTime();
+        var future = userDirectoryKafka.send(topic, key, entry);
+        record(future, topic, start);
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                logger.error("Failed to send user directory entry for " + key + ": " + e.getMessage());
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<SendResult<String, TokenEpochEvent>> sendTokenEpochEvent(String topic, String key, TokenEpochEvent event) {
+        long start = System.nanoTime();
+        var future = tokenEpochKafka.send(topic, key, event);
+        record(future, topic, start);
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                logger.error("Failed to send token epoch event: " + e.getMessage());
+            }
+        });
+        return future;
+    }
+
+    private void record(CompletableFuture<?> future, String topic, long start) {
+        SendTimers timers = sendTimers.computeIfAbsent(topic, this::sendTimers);
+        future.whenComplete((r, e) -> {
+            // Send-to-ack latency, including batching (linger) and broker acknowledgement
+            (e == null ? timers.success() : timers.failure()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e != null) {
+                // The callback gets KafkaProducerException/CompletionException wrappers; tag the actual failure
+                Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+                sendFailures.withTags("topic", topic, "exception", cause.getClass().getSimpleName()).increment();
+            }
+        });
+    }
+
+    private SendTimers sendTimers(String topic) {
+        return new SendTimers(sendTimer(topic, "success"), sendTimer(topic, "failure"));
+    }
+
+    private Timer sendTimer(String topic, String result) {
+        return Timer.builder("auth.kafka.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("result", result)
+                .register(meterRegistry);
     }
-}
 
+    private record SendTimers(Timer success, Timer failure) {
+    }
+
+    public void flush() {
+        userCreatedKafka.flush();
+        userInvalidationKafka.flush();
+        userDirectoryKafka.flush();
+        tokenEpochKafka.flush();
+    }
+}
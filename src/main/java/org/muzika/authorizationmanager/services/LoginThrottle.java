@@ -0,0 +1,129 @@
+package org.muzika.authorizationmanager.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.muzika.authorizationmanager.config.LoginThrottleConfig;
+import org.muzika.authorizationmanager.exception.TooManyRequestsException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per username and per client address, checked before any database or hashing work
+ * so a credential-stuffing burst cannot consume the BCrypt budget of legitimate logins.
+ * <p>
+ * Each bucket is a single AtomicLong updated with CAS (GCRA, the "virtual scheduling" form of a
+ * token bucket). Buckets live in bounded Caffeine caches that evict idle keys, so memory stays
+ * bounded however many usernames or addresses an attacker cycles through.
+ */
+@Service
+public class LoginThrottle {
+
+    private final LoginThrottleConfig config;
+    private final Cache<String, RateLimiter> usernameBuckets;
+    private final Cache<String, RateLimiter> ipBuckets;
+    private final Counter usernameRejected;
+    private final Counter ipRejected;
+
+    public LoginThrottle(LoginThrottleConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.usernameBuckets = buckets(config);
+        this.ipBuckets = buckets(config);
+
+        this.usernameRejected = rejectedCounter(meterRegistry, "username");
+        this.ipRejected = rejectedCounter(meterRegistry, "ip");
+        Gauge.builder("auth.login.throttle.tracked", usernameBuckets, Cache::estimatedSize)
+                .description("Throttle buckets currently held in memory")
+                .tag("key", "username")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", ipBuckets, Cache::estimatedSize)
+                .description("Throttle buckets currently held in memory")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one login attempt from the client's and the username's bucket.
+     * The address is checked first so a blocked client does not drain the victim account's bucket.
+     */
+    public void acquire(String username, String clientAddress) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (clientAddress != null) {
+            long waitNanos = ipBuckets.get(clientAddress,
+                    key -> new RateLimiter(config.getIpBurst(), config.getIpPerMinute())).tryAcquire();
+            if (waitNanos > 0) {
+                ipRejected.increment();
+                throw rejected(waitNanos);
+            }
+        }
+        if (username != null) {
+            long waitNanos = usernameBuckets.get(username.toLowerCase(Locale.ROOT),
+                    key -> new RateLimiter(config.getUsernameBurst(), config.getUsernamePerMinute())).tryAcquire();
+            if (waitNanos > 0) {
+                usernameRejected.increment();
+                throw rejected(waitNanos);
+            }
+        }
+    }
+
+    private static TooManyRequestsException rejected(long waitNanos) {
+        int retryAfterSeconds = (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return new TooManyRequestsException("Too many login attempts, try again later", retryAfterSeconds);
+    }
+
+    private static Cache<String, RateLimiter> buckets(LoginThrottleConfig config) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getMaxTrackedKeys())
+                .expireAfterAccess(Duration.ofMinutes(config.getIdleEvictionMinutes()))
+                .build();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the throttle before any credential check")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Token bucket holding only the theoretical arrival time of the next request: a request is
+     * allowed while that time is no more than the burst allowance ahead of now.
+     */
+    static final class RateLimiter {
+
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        RateLimiter(int burst, int perMinute) {
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+            this.burstToleranceNanos = emissionIntervalNanos * (Math.max(burst, 1) - 1);
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+         */
+        long tryAcquire() {
+            long now = System.nanoTime();
+            while (true) {
+                long current = theoreticalArrival.get();
+                long arrival = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long waitNanos = arrival - burstToleranceNanos - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrival.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
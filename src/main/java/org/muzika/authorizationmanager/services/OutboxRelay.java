@@ -0,0 +1,223 @@
+package org.muzika.authorizationmanager.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.muzika.authorizationmanager.config.OutboxConfig;
+import org.muzika.authorizationmanager.entities.OutboxEvent;
+import org.muzika.authorizationmanager.kafkaMessages.TokenEpochEvent;
+import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEvent;
+import org.muzika.authorizationmanager.kafkaMessages.UserDirectoryEntry;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
+import org.muzika.authorizationmanager.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table to Kafka in batches. Each batch is locked with SKIP LOCKED, published
+ * in one go and marked sent or rescheduled in the same transaction, so replicas never publish
+ * the same row twice and a crash only causes a redelivery. A batch holds at most the oldest
+ * unsent event per key, so a rescheduled event is never overtaken by a later one for its key.
+ */
+@Service
+public class OutboxRelay {
+
+    private final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final OutboxConfig config;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryDelayTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaProducerService kafkaProducerService,
+                       OutboxConfig config,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.sentCounter = Counter.builder("auth.outbox.sent")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.outbox.failed")
+                .description("Outbox publish attempts that failed and were rescheduled or given up")
+                .register(meterRegistry);
+        this.deliveryDelayTimer = Timer.builder("auth.outbox.delivery.delay")
+                .description("Time from the outbox write to the broker acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder("auth.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("auth.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("auth.outbox.dead", dead, AtomicLong::get)
+                .description("Outbox events given up after the maximum attempts; each holds back later events for its key")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-millis:500}")
+    public void relay() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            // Keep draining while batches come back full instead of waiting for the next tick
+            while (relayBatch() == config.getBatchSize()) {
+                // next batch
+            }
+        } catch (Exception e) {
+            logger.error("Outbox relay failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes one batch of due events and returns how many were processed.
+     */
+    public int relayBatch() {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockDue(
+                    OutboxEvent.Status.PENDING, OutboxEvent.Status.SENT, LocalDateTime.now(),
+                    Limit.of(config.getBatchSize()));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                sends.add(send(event));
+            }
+            // Push the whole batch out now rather than waiting for linger.ms
+            kafkaProducerService.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getSendTimeoutMillis());
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxEvent event = batch.get(i);
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    sends.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                    markSent(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    markFailed(event, e);
+                } catch (ExecutionException e) {
+                    markFailed(event, e.getCause());
+                } catch (TimeoutException e) {
+                    markFailed(event, e);
+                }
+            }
+            return batch.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    @Scheduled(fixedDelay = 10000)
+    public void refreshMetrics() {
+        try {
+            backlog.set(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+            LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt(OutboxEvent.Status.PENDING);
+            lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+            dead.set(outboxEventRepository.countByStatus(OutboxEvent.Status.FAILED));
+        } catch (Exception e) {
+            logger.warn("Failed to refresh outbox metrics: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeDelivered() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int deleted = outboxEventRepository.deleteSentBefore(
+                    OutboxEvent.Status.SENT, LocalDateTime.now().minusHours(config.getRetentionHours()));
+            if (deleted > 0) {
+                logger.info("Purged {} delivered outbox events", deleted);
+            }
+        });
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            return switch (event.getEventType()) {
+                case "UserCreatedEvent" -> kafkaProducerService.sendUserCreatedEvent(
+                        event.getTopic(), event.getMessageKey(),
+                        objectMapper.readValue(event.getPayload(), UserCreatedEvent.class));
+                case "UserInvalidatedEvent" -> kafkaProducerService.sendUserInvalidatedEvent(
+                        event.getTopic(), event.getMessageKey(),
+                        objectMapper.readValue(event.getPayload(), UserInvalidatedEvent.class));
+                case "UserDirectoryEntry" -> kafkaProducerService.sendUserDirectoryEntry(
+                        event.getTopic(), event.getMessageKey(),
+                        objectMapper.readValue(event.getPayload(), UserDirectoryEntry.class));
+                case "TokenEpochEvent" -> kafkaProducerService.sendTokenEpochEvent(
+                        event.getTopic(), event.getMessageKey(),
+                        objectMapper.readValue(event.getPayload(), TokenEpochEvent.class));
+                case OutboxService.TOMBSTONE -> kafkaProducerService.sendUserDirectoryEntry(
+                        event.getTopic(), event.getMessageKey(), null);
+                default -> CompletableFuture.failedFuture(
+                        new IllegalStateException("Unknown outbox event type: " + event.getEventType()));
+            };
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void markSent(OutboxEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        event.setStatus(OutboxEvent.Status.SENT);
+        event.setSentAt(now);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(null);
+        sentCounter.increment();
+        deliveryDelayTimer.record(Duration.between(event.getCreatedAt(), now));
+    }
+
+    private void markFailed(OutboxEvent event, Throwable cause) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(String.valueOf(cause.getMessage())));
+        failedCounter.increment();
+
+        if (attempts >= config.getMaxAttempts()) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            logger.error("Giving up on outbox event " + event.getId() + " after " + attempts + " attempts,"
+                    + " later events for key " + event.getMessageKey() + " on " + event.getTopic()
+                    + " are held back until it is resolved: " + cause.getMessage());
+            return;
+        }
+        long backoff = Math.min(config.getMaxBackoffMillis(), 1000L << Math.min(attempts - 1, 20));
+        event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoff)));
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
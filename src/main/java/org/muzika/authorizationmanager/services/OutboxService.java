@@ -0,0 +1,53 @@
+package org.muzika.authorizationmanager.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.muzika.authorizationmanager.entities.OutboxEvent;
+import org.muzika.authorizationmanager.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OutboxService {
+
+    // Event type of a keyed record with a null value, which deletes the key from a compacted topic
+    static final String TOMBSTONE = "Tombstone";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stores the event in the caller's transaction; it is published only if that transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, Object event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(topic);
+        outboxEvent.setMessageKey(key);
+        outboxEvent.setEventType(event.getClass().getSimpleName());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox event: " + e.getMessage(), e);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    /**
+     * Stores a tombstone for the key in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTombstone(String topic, String key) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(topic);
+        outboxEvent.setMessageKey(key);
+        outboxEvent.setEventType(TOMBSTONE);
+        outboxEventRepository.save(outboxEvent);
+    }
+}
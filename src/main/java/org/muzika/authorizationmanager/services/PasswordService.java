@@ -1,23 +1,213 @@
 package org.muzika.authorizationmanager.services;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.muzika.authorizationmanager.config.PasswordHashingConfig;
+import org.muzika.authorizationmanager.exception.ServiceBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
 @Service
 public class PasswordService {
 
+    private final Logger logger = LoggerFactory.getLogger(PasswordService.class);
+
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingConfig hashingConfig;
+    // BCrypt runs here instead of on Tomcat threads so a login burst cannot starve health probes
+    private final ThreadPoolExecutor hashingExecutor;
+    private final Timer queueWaitTimer;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+    private final Counter abandonedCounter;
 
-    public PasswordService(PasswordEncoder passwordEncoder) {
+    public PasswordService(PasswordEncoder passwordEncoder,
+                           PasswordHashingConfig hashingConfig,
+                           MeterRegistry meterRegistry) {
         this.passwordEncoder = passwordEncoder;
+        this.hashingConfig = hashingConfig;
+
+        int threads = hashingConfig.getThreads() > 0
+                ? hashingConfig.getThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.hashingExecutor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingConfig.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.hashing.queue.depth", hashingExecutor, executor -> executor.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", hashingExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.hashing.queue.wait")
+                .description("Time a hashing task waited in the queue before starting")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("CPU time of hashing a password, excluding the queue wait")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.password.verify")
+                .description("CPU time of checking a password against its hash, excluding the queue wait")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hashing.rejected")
+                .description("Hashing tasks rejected because the queue was full or the wait timed out")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("auth.password.hashing.abandoned")
+                .description("Timed-out hashing tasks that had already started and kept their worker busy")
+                .register(meterRegistry);
     }
 
     public String hashPassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return runOnHashingPool(() -> encode(rawPassword));
     }
 
     public boolean verifyPassword(String rawPassword, String hashedPassword) {
-        return passwordEncoder.matches(rawPassword, hashedPassword);
+        return runOnHashingPool(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, hashedPassword)));
+    }
+
+    /**
+     * Hashes a batch in parallel on the hashing pool for bulk imports. At most one task per worker
+     * is in flight, so the queue keeps room for interactive logins. When the pool still rejects,
+     * the batch fails with ServiceBusyException rather than hashing on the request thread,
+     * which would take CPU from logins outside the pool's limits.
+     */
+    public List<String> hashPasswords(List<String> rawPasswords) {
+        Semaphore inFlight = new Semaphore(hashingExecutor.getMaximumPoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String rawPassword : rawPasswords) {
+                inFlight.acquire();
+                try {
+                    futures.add(hashingExecutor.submit(() -> {
+                        try {
+                            return encode(rawPassword);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    futures.forEach(future -> future.cancel(true));
+                    rejectedCounter.increment();
+                    throw new ServiceBusyException("Password hashing is saturated, retry the import later",
+                            hashingConfig.getRetryAfterSeconds());
+                }
+            }
+
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public boolean needsRehash(String hashedPassword) {
+        return passwordEncoder.upgradeEncoding(hashedPassword);
     }
-}
 
+    /**
+     * Re-hashes with the current algorithm and cost without blocking the caller.
+     * Upgrades are best effort: they are skipped while the pool is more than half full so
+     * they never take capacity from interactive logins, and retried on the next login.
+     */
+    public void rehashInBackground(String rawPassword, Consumer<String> onRehashed) {
+        if (hashingExecutor.getQueue().remainingCapacity() <= hashingConfig.getQueueCapacity() / 2) {
+            return;
+        }
+        try {
+            hashingExecutor.execute(() -> {
+                try {
+                    onRehashed.accept(encode(rawPassword));
+                } catch (Exception e) {
+                    logger.warn("Failed to store upgraded password hash: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool filled up in the meantime - the next login tries again
+        }
+    }
+
+    private String encode(String rawPassword) {
+        return hashTimer.record(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Runs the work on the hashing pool and waits at most timeout-millis for it. On timeout a task
+     * still in the queue is skipped, but one already running cannot be stopped (the encoders do not
+     * check interrupts): it finishes on its worker and is counted in auth.password.hashing.abandoned.
+     */
+    private <T> T runOnHashingPool(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(() -> {
+                started.set(true);
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return work.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many concurrent authentication requests",
+                    hashingConfig.getRetryAfterSeconds());
+        }
+
+        try {
+            return future.get(hashingConfig.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            if (started.get()) {
+                abandonedCounter.increment();
+            }
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many concurrent authentication requests",
+                    hashingConfig.getRetryAfterSeconds());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+}
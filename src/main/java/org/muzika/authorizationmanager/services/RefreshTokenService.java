@@ -0,0 +1,161 @@
+package org.muzika.authorizationmanager.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.dto.TokenResponse;
+import org.muzika.authorizationmanager.entities.RefreshToken;
+import org.muzika.authorizationmanager.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Unused tokens are cached by hash so a refresh is a
+ * memory lookup plus one conditional update instead of a password check.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final String INVALID_REFRESH_TOKEN = "Invalid refresh token";
+
+    private final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocation;
+    private final JwtConfig jwtConfig;
+    private final SecureRandom secureRandom = new SecureRandom();
+    // Unused, unrevoked tokens by SHA-256 hash; consumed tokens are evicted on rotation
+    private final Cache<String, CachedRefreshToken> unusedTokens;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtService jwtService,
+                               TokenRevocationService tokenRevocation,
+                               JwtConfig jwtConfig) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.tokenRevocation = tokenRevocation;
+        this.jwtConfig = jwtConfig;
+        this.unusedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getRefreshCacheMaxEntries())
+                .expireAfterWrite(Duration.ofMillis(jwtConfig.getRefreshExpiration()))
+                .build();
+    }
+
+    /**
+     * Starts a new token family for a fresh login and returns the raw refresh token.
+     */
+    @Transactional
+    public String issue(UUID userId, String username) {
+        return issue(userId, username, UUID.randomUUID());
+    }
+
+    /**
+     * Consumes the presented refresh token and returns a new access token plus its replacement.
+     * A token that was already consumed or revoked revokes its whole family (likely theft).
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public TokenResponse refresh(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            throw new IllegalArgumentException(INVALID_REFRESH_TOKEN);
+        }
+        String tokenHash = hash(rawToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        CachedRefreshToken token = unusedTokens.getIfPresent(tokenHash);
+        if (token == null) {
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new IllegalArgumentException(INVALID_REFRESH_TOKEN));
+            if (stored.getUsedAt() != null || stored.getRevokedAt() != null) {
+                revokeFamily(stored.getFamilyId(), now);
+                throw new IllegalArgumentException(INVALID_REFRESH_TOKEN);
+            }
+            token = CachedRefreshToken.of(stored);
+        }
+        unusedTokens.invalidate(tokenHash);
+
+        if (token.expiresAt().isBefore(now)) {
+            throw new IllegalArgumentException(INVALID_REFRESH_TOKEN);
+        }
+        // Consumed concurrently or on another replica - same as reuse
+        if (refreshTokenRepository.markUsed(token.id(), now) == 0) {
+            revokeFamily(token.familyId(), now);
+            throw new IllegalArgumentException(INVALID_REFRESH_TOKEN);
+        }
+
+        TokenResponse response = new TokenResponse();
+        long epoch = tokenRevocation.currentEpoch(token.userId());
+        response.setToken(jwtService.generateToken(token.userId(), token.username(), epoch));
+        response.setExpiresIn(jwtService.getAccessTokenLifetimeSeconds());
+        response.setRefreshToken(issue(token.userId(), token.username(), token.familyId()));
+        return response;
+    }
+
+    @Transactional
+    public void revokeAll(UUID userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+        unusedTokens.asMap().values().removeIf(token -> token.userId().equals(userId));
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(UUID userId, String username, UUID familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setUsername(username);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtConfig.getRefreshExpiration())));
+        RefreshToken saved = refreshTokenRepository.save(token);
+
+        unusedTokens.put(saved.getTokenHash(), CachedRefreshToken.of(saved));
+        return rawToken;
+    }
+
+    private void revokeFamily(UUID familyId, LocalDateTime now) {
+        logger.warn("Refresh token reuse detected, revoking token family " + familyId);
+        refreshTokenRepository.revokeFamily(familyId, now);
+        unusedTokens.asMap().values().removeIf(token -> token.familyId().equals(familyId));
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedRefreshToken(UUID id, UUID userId, String username, UUID familyId, LocalDateTime expiresAt) {
+
+        static CachedRefreshToken of(RefreshToken token) {
+            return new CachedRefreshToken(token.getId(), token.getUserId(), token.getUsername(),
+                    token.getFamilyId(), token.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.muzika.authorizationmanager.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.muzika.authorizationmanager.config.DataSourceRoutingConfig;
+import org.muzika.authorizationmanager.config.ReadWriteRoutingDataSource;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for replica routing. Reads of a user written within the sticky window go to the
+ * primary; everything else, including misses, is answered by the replica, so unknown usernames and
+ * ids never reach the primary. Writes on other instances (e.g. a signup followed by a login routed
+ * elsewhere) are learned from the user-invalidation events that every user write publishes; until
+ * the outbox relay delivers the event, such a read can still miss on a lagging replica.
+ */
+@Service
+public class ReplicaReadGuard {
+
+    private final boolean routingEnabled;
+    private final Cache<Object, Boolean> recentlyWritten;
+    // Own transaction, because a caller's read-only transaction may already hold a replica connection
+    private final TransactionTemplate primaryRead;
+
+    public ReplicaReadGuard(DataSourceRoutingConfig config, PlatformTransactionManager transactionManager) {
+        this.routingEnabled = config.isEnabled() && !config.getReplicas().isEmpty();
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryRead.setReadOnly(true);
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(config.getStickyWindowMillis()))
+                .build();
+    }
+
+    /**
+     * Marks a user key (id or username) as just written.
+     */
+    public void recordWrite(Object key) {
+        if (routingEnabled && key != null) {
+            recentlyWritten.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Marks the keys of a user written on another instance. Each instance uses its own group.
+     */
+    @KafkaListener(topics = UserCache.USER_INVALIDATION_TOPIC,
+                   groupId = "authmanager-replica-guard-${random.uuid}",
+                   containerFactory = "userInvalidationListenerContainerFactory",
+                   autoStartup = "${datasource.routing.enabled:false}")
+    public void onUserWritten(UserInvalidatedEvent event) {
+        recordWrite(event.getUserId());
+        recordWrite(event.getUsername());
+    }
+
+    /**
+     * Runs a read-only lookup, on the primary when the key was written recently.
+     */
+    public <T> Optional<T> read(Object key, Supplier<Optional<T>> lookup) {
+        if (routingEnabled && recentlyWritten.getIfPresent(key) != null) {
+            return readFromPrimary(lookup);
+        }
+        return lookup.get();
+    }
+
+    /**
+     * Batch form of {@link #read}: only keys written recently are loaded from the primary,
+     * in one lookup, so the size of a batch sent there is bounded by recent writes.
+     */
+    public <K, T> List<T> readAll(Collection<K> keys, Function<Collection<K>, List<T>> lookup) {
+        if (!routingEnabled) {
+            return lookup.apply(keys);
+        }
+        List<K> onReplica = new ArrayList<>();
+        List<K> onPrimary = new ArrayList<>();
+        for (K key : keys) {
+            (recentlyWritten.getIfPresent(key) != null ? onPrimary : onReplica).add(key);
+        }
+        List<T> result = new ArrayList<>();
+        if (!onReplica.isEmpty()) {
+            result.addAll(lookup.apply(onReplica));
+        }
+        if (!onPrimary.isEmpty()) {
+            result.addAll(readFromPrimary(() -> lookup.apply(onPrimary)));
+        }
+        return result;
+    }
+
+    private <T> T readFromPrimary(Supplier<T> lookup) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> primaryRead.execute(status -> lookup.get()));
+    }
+}
@@ -0,0 +1,85 @@
+package org.muzika.authorizationmanager.services;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of user_token_epochs: user id to the minimum epoch a valid access token carries.
+ * Only users whose tokens were revoked recently are present, so the map stays small and checking
+ * a token is one hash lookup. Kept current and pruned by TokenRevocationService.
+ */
+@Component
+public class TokenEpochs {
+
+    public static final String USER_ID_CLAIM = "uid";
+    static final String EPOCH_CLAIM = "ep";
+
+    private final Map<UUID, Revocation> epochs = new ConcurrentHashMap<>();
+
+    /**
+     * Latest epoch known to this instance. May lag revocations made on other instances;
+     * tokens are issued with the epoch read from the database.
+     */
+    public long current(UUID userId) {
+        Revocation revocation = epochs.get(userId);
+        return revocation == null ? 0 : revocation.epoch();
+    }
+
+    /**
+     * False if the user's tokens were revoked after this token was issued. Tokens without the
+     * claims were issued before epochs existed and stay valid until they expire.
+     */
+    public boolean isCurrent(Claims claims) {
+        if (epochs.isEmpty()) {
+            return true;
+        }
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return true;
+        }
+        Revocation minimum;
+        try {
+            minimum = epochs.get(UUID.fromString(userId));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (minimum == null) {
+            return true;
+        }
+        Long epoch = claims.get(EPOCH_CLAIM, Long.class);
+        return epoch != null && epoch >= minimum.epoch();
+    }
+
+    /**
+     * Epochs only move forward, so replayed or reordered updates are harmless.
+     *
+     * @param revokedAt when the epoch was written to user_token_epochs; decides when it is pruned
+     */
+    public void advance(UUID userId, long epoch, LocalDateTime revokedAt) {
+        epochs.merge(userId, new Revocation(epoch, revokedAt),
+                (known, update) -> update.epoch() > known.epoch()
+                        || (update.epoch() == known.epoch() && update.revokedAt().isAfter(known.revokedAt()))
+                        ? update : known);
+    }
+
+    /**
+     * Forgets revocations made before the cutoff. Once every token issued before a revocation has
+     * expired, the entry rejects nothing.
+     */
+    public void prune(LocalDateTime revokedBefore) {
+        epochs.keySet().forEach(userId -> epochs.computeIfPresent(userId,
+                (id, revocation) -> revocation.revokedAt().isBefore(revokedBefore) ? null : revocation));
+    }
+
+    public int size() {
+        return epochs.size();
+    }
+
+    private record Revocation(long epoch, LocalDateTime revokedAt) {
+    }
+}
@@ -0,0 +1,82 @@
+package org.muzika.authorizationmanager.services;
+
+import io.jsonwebtoken.Claims;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.dto.IntrospectionResponse;
+import org.muzika.authorizationmanager.dto.TokenIntrospection;
+import org.muzika.authorizationmanager.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Batched introspection for services that cannot verify tokens themselves. Signatures are checked
+ * through JwtService and its verified-claims cache. Revocation is the token epoch check in memory;
+ * deleting a user advances its epoch, so only tokens issued before epochs (no uid claim) need the
+ * deleted-user check, resolved for the whole batch with at most one IN query.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final TokenEpochs tokenEpochs;
+    private final JwtConfig jwtConfig;
+
+    public TokenIntrospectionService(JwtService jwtService,
+                                     UserRepository userRepository,
+                                     TokenEpochs tokenEpochs,
+                                     JwtConfig jwtConfig) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.tokenEpochs = tokenEpochs;
+        this.jwtConfig = jwtConfig;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IntrospectionResponse introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return new IntrospectionResponse(List.of());
+        }
+        int maxTokens = jwtConfig.getIntrospection().getMaxTokens();
+        if (tokens.size() > maxTokens) {
+            throw new IllegalArgumentException("At most " + maxTokens + " tokens can be introspected per request");
+        }
+
+        List<Optional<Claims>> verified = new ArrayList<>(tokens.size());
+        Set<String> legacySubjects = new HashSet<>();
+        for (String token : tokens) {
+            Optional<Claims> claims = jwtService.verifySignature(token);
+            verified.add(claims);
+            claims.filter(TokenIntrospectionService::isLegacy).map(Claims::getSubject).ifPresent(legacySubjects::add);
+        }
+        // Legacy tokens are older than any replica lag, so the replica's answer is good enough
+        Set<String> existing = legacySubjects.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingUsernames(legacySubjects));
+
+        List<TokenIntrospection> results = new ArrayList<>(tokens.size());
+        for (Optional<Claims> claims : verified) {
+            TokenIntrospection result = new TokenIntrospection();
+            claims.ifPresent(valid -> {
+                result.setSub(valid.getSubject());
+                result.setExp(valid.getExpiration().getTime() / 1000);
+                result.setRevoked(!tokenEpochs.isCurrent(valid)
+                        || (isLegacy(valid) && !existing.contains(valid.getSubject())));
+                result.setActive(!result.isRevoked());
+            });
+            results.add(result);
+        }
+        return new IntrospectionResponse(results);
+    }
+
+    private static boolean isLegacy(Claims claims) {
+        return claims.get(TokenEpochs.USER_ID_CLAIM) == null;
+    }
+}
@@ -0,0 +1,202 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.config.ReadWriteRoutingDataSource;
+import org.muzika.authorizationmanager.entities.UserTokenEpoch;
+import org.muzika.authorizationmanager.kafkaMessages.TokenEpochEvent;
+import org.muzika.authorizationmanager.repository.UserTokenEpochRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Revokes all access tokens of a user by advancing the user's epoch in user_token_epochs.
+ * Instances learn about new epochs from the token-epoch topic and, as a fallback for missed
+ * messages, from a periodic query for recently changed rows. The full table is loaded before
+ * the web server starts accepting requests. The consumer only starts after the web server and
+ * reads from the latest offset, so revocations committed in between are picked up by a refresh
+ * once its partitions are assigned; until then this instance may accept those tokens.
+ * <p>
+ * Rows and in-memory entries are pruned once every token issued before them has expired.
+ * Epochs are at least the revocation time in milliseconds, so a row created after pruning
+ * still rejects tokens issued under the pruned epoch.
+ */
+@Service
+public class TokenRevocationService implements SmartLifecycle, ConsumerSeekAware {
+
+    static final String TOKEN_EPOCH_TOPIC = "token-epoch";
+    // Re-read rows changed shortly before the last poll to tolerate clock skew and replica lag
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    // Margin for clock skew between instances when deciding a revocation has outlived its tokens
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final UserTokenEpochRepository epochRepository;
+    private final TokenEpochs tokenEpochs;
+    private final OutboxService outboxService;
+    private final Duration accessTokenLifetime;
+    private volatile LocalDateTime lastRefresh;
+    private volatile boolean running;
+
+    public TokenRevocationService(UserTokenEpochRepository epochRepository,
+                                  TokenEpochs tokenEpochs,
+                                  OutboxService outboxService,
+                                  JwtConfig jwtConfig,
+                                  MeterRegistry meterRegistry) {
+        this.epochRepository = epochRepository;
+        this.tokenEpochs = tokenEpochs;
+        this.outboxService = outboxService;
+        this.accessTokenLifetime = Duration.ofMillis(jwtConfig.getExpiration());
+
+        Gauge.builder("auth.token.epochs", tokenEpochs, TokenEpochs::size)
+                .description("Users with revoked tokens tracked in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Invalidates every access token issued to the user so far. Call in the transaction that
+     * deletes the user, logs out all sessions or changes the password.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revokeAccessTokens(UUID userId) {
+        UserTokenEpoch row = epochRepository.lockByUserId(userId).orElseGet(() -> {
+            UserTokenEpoch created = new UserTokenEpoch();
+            created.setUserId(userId);
+            return created;
+        });
+        long epoch = Math.max(row.getEpoch() + 1, System.currentTimeMillis());
+        LocalDateTime revokedAt = LocalDateTime.now();
+        row.setEpoch(epoch);
+        row.setUpdatedAt(revokedAt);
+        epochRepository.save(row);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenEpochs.advance(userId, epoch, revokedAt);
+            }
+        });
+        outboxService.enqueue(TOKEN_EPOCH_TOPIC, userId.toString(), new TokenEpochEvent(userId, epoch, revokedAt));
+    }
+
+    /**
+     * Epoch to embed in an access token issued now. Read from the primary, because the in-memory
+     * copy may not have caught up with a revocation made on another instance yet, and a token issued
+     * with the older epoch would be rejected once it does.
+     */
+    public long currentEpoch(UUID userId) {
+        Optional<UserTokenEpoch> row = ReadWriteRoutingDataSource.onPrimary(() -> epochRepository.findById(userId));
+        row.ifPresent(this::apply);
+        return Math.max(row.map(UserTokenEpoch::getEpoch).orElse(0L), tokenEpochs.current(userId));
+    }
+
+    /**
+     * Revocations on other replicas. Each instance uses its own group.
+     */
+    @KafkaListener(topics = TOKEN_EPOCH_TOPIC,
+                   groupId = "authmanager-token-epoch-${random.uuid}",
+                   containerFactory = "tokenEpochListenerContainerFactory")
+    public void onTokenEpoch(TokenEpochEvent event) {
+        LocalDateTime revokedAt = event.getRevokedAt() != null ? event.getRevokedAt() : LocalDateTime.now();
+        tokenEpochs.advance(event.getUserId(), event.getEpoch(), revokedAt);
+    }
+
+    /**
+     * Catches up on revocations committed between the startup load and the partition assignment,
+     * which the consumer skips because it starts at the latest offset.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.epoch-refresh-millis:30000}")
+    public void refresh() {
+        LocalDateTime since = lastRefresh;
+        if (since == null) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            apply(epochRepository.findByUpdatedAtAfter(since.minus(REFRESH_OVERLAP)));
+            lastRefresh = now;
+        } catch (Exception e) {
+            logger.warn("Failed to refresh token epochs: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops revocations older than the access token lifetime, from memory first and from the
+     * table a skew margin later, so no instance still rejects tokens that carry no epoch
+     * once the row is gone.
+     */
+    @Scheduled(fixedDelayString = "${jwt.epoch-prune-millis:3600000}")
+    public void prune() {
+        LocalDateTime expired = LocalDateTime.now().minus(accessTokenLifetime).minus(CLOCK_SKEW);
+        tokenEpochs.prune(expired);
+        try {
+            int deleted = epochRepository.deleteByUpdatedAtBefore(expired.minus(CLOCK_SKEW));
+            if (deleted > 0) {
+                logger.info("Pruned {} expired token epochs", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to prune token epochs: " + e.getMessage());
+        }
+    }
+
+    private void apply(List<UserTokenEpoch> rows) {
+        rows.forEach(this::apply);
+    }
+
+    private void apply(UserTokenEpoch row) {
+        tokenEpochs.advance(row.getUserId(), row.getEpoch(), row.getUpdatedAt());
+    }
+
+    /**
+     * Loads every epoch before the web server and the Kafka listeners start (earlier phase).
+     * Not run by the AppCDS training run, which exits before lifecycle beans start.
+     */
+    @Override
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserTokenEpoch> rows = epochRepository.findAll();
+        apply(rows);
+        lastRefresh = now;
+        running = true;
+        logger.info("Loaded token epochs for {} users", rows.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
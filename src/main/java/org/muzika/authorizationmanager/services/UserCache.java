@@ -0,0 +1,197 @@
+package org.muzika.authorizationmanager.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.muzika.authorizationmanager.config.UserCacheConfig;
+import org.muzika.authorizationmanager.entities.User;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Per-instance cache of user profile lookups by id and by username. Entries hold no password hash.
+ * <p>
+ * Every write of a user row calls {@link #invalidate}: the entry is evicted locally right away and
+ * again after commit, and an invalidation event goes through the outbox so the other replicas evict
+ * it too. Misses are not cached, so a new account is visible immediately; the TTL bounds staleness
+ * if an invalidation is delayed.
+ * <p>
+ * Each eviction bumps a version of the key, and a load that raced with one drops what it cached,
+ * so a row read before a write committed cannot be re-cached after that write's eviction.
+ */
+@Service
+public class UserCache {
+
+    static final String USER_INVALIDATION_TOPIC = "user-invalidation";
+    private static final int VERSION_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final OutboxService outboxService;
+    private final Cache<UUID, User> usersById;
+    private final Cache<String, UUID> idsByUsername;
+    // Eviction count per key stripe; keys sharing a stripe only cost each other a cache fill
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public UserCache(UserCacheConfig config, OutboxService outboxService, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        this.outboxService = outboxService;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .build();
+
+        // Exposes cache_gets{result=hit|miss}, cache_evictions and cache_size per cache
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.byUsername");
+    }
+
+    public Optional<User> getById(UUID id, Function<UUID, Optional<User>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long version = version(id);
+        Optional<User> loaded = loader.apply(id);
+        loaded.ifPresent(user -> putIfCurrent(user, id, version));
+        return loaded;
+    }
+
+    /**
+     * Resolves many ids, loading only the cache misses in one call to the loader.
+     */
+    public Map<UUID, User> getAllById(Collection<UUID> ids, Function<Collection<UUID>, List<User>> loader) {
+        Map<UUID, User> found = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID id : ids) {
+            User cached = enabled ? usersById.getIfPresent(id) : null;
+            if (cached != null) {
+                found.put(id, copyOf(cached));
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<UUID, Long> missVersions = new HashMap<>();
+            misses.forEach(id -> missVersions.put(id, version(id)));
+            for (User loaded : loader.apply(misses)) {
+                Long version = missVersions.get(loaded.getId());
+                if (enabled && version != null) {
+                    putIfCurrent(loaded, loaded.getId(), version);
+                }
+                found.put(loaded.getId(), loaded);
+            }
+        }
+        return found;
+    }
+
+    public Optional<User> getByUsername(String username, Function<String, Optional<User>> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        UUID id = idsByUsername.getIfPresent(username);
+        User cached = id != null ? usersById.getIfPresent(id) : null;
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long version = version(username);
+        Optional<User> loaded = loader.apply(username);
+        loaded.ifPresent(user -> putIfCurrent(user, username, version));
+        return loaded;
+    }
+
+    /**
+     * Call in the transaction that writes the user. Requires an active transaction (the outbox does).
+     */
+    public void invalidate(UUID id, String username) {
+        evict(id, username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A concurrent reader may have re-cached the old row before the write committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, username);
+                }
+            });
+        }
+        outboxService.enqueue(USER_INVALIDATION_TOPIC, id.toString(), new UserInvalidatedEvent(id, username));
+    }
+
+    /**
+     * Evictions from other replicas (and this one's own, which are harmless). Each instance uses its own group.
+     */
+    @KafkaListener(topics = USER_INVALIDATION_TOPIC,
+                   groupId = "authmanager-user-cache-${random.uuid}",
+                   containerFactory = "userInvalidationListenerContainerFactory",
+                   autoStartup = "${user.cache.enabled:true}")
+    public void onUserInvalidated(UserInvalidatedEvent event) {
+        evict(event.getUserId(), event.getUsername());
+    }
+
+    // Versions are bumped before the entries go, see putIfCurrent
+    private void evict(UUID id, String username) {
+        if (id != null) {
+            versions.incrementAndGet(stripe(id));
+            usersById.invalidate(id);
+        }
+        if (username != null) {
+            versions.incrementAndGet(stripe(username));
+            idsByUsername.invalidate(username);
+        }
+    }
+
+    /**
+     * Caches a loaded user, then undoes it if the key was evicted since the load began: either the
+     * eviction runs after the put and removes it, or its version bump is seen here.
+     */
+    private void putIfCurrent(User user, Object key, long version) {
+        usersById.put(user.getId(), copyOf(user));
+        idsByUsername.put(user.getUsername(), user.getId());
+        if (version(key) != version) {
+            usersById.invalidate(user.getId());
+            idsByUsername.invalidate(user.getUsername());
+        }
+    }
+
+    private long version(Object key) {
+        return versions.get(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+
+    // Callers get their own instance, so mutating a returned entity cannot change the cached one
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setEmail(user.getEmail());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+}
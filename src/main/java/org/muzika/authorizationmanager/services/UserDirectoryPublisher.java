@@ -0,0 +1,137 @@
+package org.muzika.authorizationmanager.services;
+
+import jakarta.annotation.PreDestroy;
+import org.muzika.authorizationmanager.config.UserDirectoryConfig;
+import org.muzika.authorizationmanager.entities.User;
+import org.muzika.authorizationmanager.kafkaMessages.UserDirectoryEntry;
+import org.muzika.authorizationmanager.repository.UserExportRow;
+import org.muzika.authorizationmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the compacted user-directory topic in step with the users table: an upsert keyed by user id
+ * for every create or change and a tombstone for every delete, written to the outbox in the same
+ * transaction. Consumers can build a local view from the topic instead of calling this service;
+ * a snapshot republishes every existing user for topics that start empty.
+ */
+@Service
+public class UserDirectoryPublisher {
+
+    static final String USER_DIRECTORY_TOPIC = "user-directory";
+
+    private final Logger logger = LoggerFactory.getLogger(UserDirectoryPublisher.class);
+
+    private final UserDirectoryConfig config;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate pageTransaction;
+    private final ExecutorService snapshotExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-directory-snapshot-"));
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+    public UserDirectoryPublisher(UserDirectoryConfig config,
+                                  UserRepository userRepository,
+                                  OutboxService outboxService,
+                                  PlatformTransactionManager transactionManager) {
+        this.config = config;
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.pageTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Publishes the user's current state; call after every create or update of a user.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upsert(User user) {
+        if (config.isEnabled()) {
+            outboxService.enqueue(USER_DIRECTORY_TOPIC, user.getId().toString(), toEntry(user));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(UUID userId) {
+        if (config.isEnabled()) {
+            outboxService.enqueueTombstone(USER_DIRECTORY_TOPIC, userId.toString());
+        }
+    }
+
+    /**
+     * Starts a snapshot in the background unless one is already running on this instance.
+     */
+    public boolean startSnapshot() {
+        if (!config.isEnabled()) {
+            throw new IllegalArgumentException("User directory publishing is disabled");
+        }
+        if (!snapshotRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            snapshotExecutor.execute(() -> {
+                try {
+                    long published = publishSnapshot();
+                    logger.info("User directory snapshot enqueued {} users", published);
+                } catch (Exception e) {
+                    logger.error("User directory snapshot failed: " + e.getMessage());
+                } finally {
+                    snapshotRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            snapshotRunning.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Walks the users in (createdAt, id) keyset pages and enqueues an upsert for each. Every page is
+     * locked and enqueued in its own transaction, so a user deleted meanwhile either is skipped or
+     * gets its tombstone after the upsert, never before it.
+     */
+    long publishSnapshot() {
+        int pageSize = config.getSnapshotPageSize();
+        long published = 0;
+        List<UserExportRow> page = userRepository.findExportPage(Limit.of(pageSize));
+        while (!page.isEmpty()) {
+            List<UUID> ids = page.stream().map(UserExportRow::getId).toList();
+            Integer enqueued = pageTransaction.execute(status -> {
+                List<User> users = userRepository.findAllByIdIn(ids);
+                users.forEach(this::upsert);
+                return users.size();
+            });
+            published += enqueued == null ? 0 : enqueued;
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            UserExportRow last = page.get(page.size() - 1);
+            page = userRepository.findExportPageAfter(last.getCreatedAt(), last.getId(), Limit.of(pageSize));
+        }
+        return published;
+    }
+
+    private static UserDirectoryEntry toEntry(User user) {
+        return new UserDirectoryEntry(user.getId(), user.getUsername(), user.getEmail(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshotExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package org.muzika.authorizationmanager.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.muzika.authorizationmanager.config.UserExportConfig;
+import org.muzika.authorizationmanager.dto.UserResponse;
+import org.muzika.authorizationmanager.repository.UserExportRow;
+import org.muzika.authorizationmanager.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes every user as NDJSON (one UserResponse per line) in (createdAt, id) order. Pages are read
+ * with keyset pagination, each in its own short read-only query, and flushed to the client before
+ * the next one is read, so heap use is bounded by the page size and no transaction spans the export.
+ */
+@Service
+public class UserExportService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final UserRepository userRepository;
+    private final ObjectWriter userWriter;
+    private final int pageSize;
+
+    public UserExportService(UserRepository userRepository, UserExportConfig config, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.pageSize = config.getPageSize();
+        this.userWriter = objectMapper.writerFor(UserResponse.class);
+    }
+
+    public long export(OutputStream out) throws IOException {
+        long exported = 0;
+        List<UserExportRow> page = userRepository.findExportPage(Limit.of(pageSize));
+        while (!page.isEmpty()) {
+            for (UserExportRow row : page) {
+                out.write(userWriter.writeValueAsBytes(toResponse(row)));
+                out.write(NEWLINE);
+            }
+            out.flush();
+            exported += page.size();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            UserExportRow last = page.get(page.size() - 1);
+            page = userRepository.findExportPageAfter(last.getCreatedAt(), last.getId(), Limit.of(pageSize));
+        }
+        return exported;
+    }
+
+    private static UserResponse toResponse(UserExportRow row) {
+        UserResponse response = new UserResponse();
+        response.setId(row.getId());
+        response.setUsername(row.getUsername());
+        response.setEmail(row.getEmail());
+        response.setCreatedAt(row.getCreatedAt());
+        response.setUpdatedAt(row.getUpdatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,211 @@
+package org.muzika.authorizationmanager.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.muzika.authorizationmanager.config.UserImportConfig;
+import org.muzika.authorizationmanager.dto.BulkImportFailure;
+import org.muzika.authorizationmanager.dto.BulkImportResponse;
+import org.muzika.authorizationmanager.dto.CreateUserRequest;
+import org.muzika.authorizationmanager.entities.User;
+import org.muzika.authorizationmanager.kafkaMessages.UserCreatedEvent;
+import org.muzika.authorizationmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports users from an NDJSON stream of CreateUserRequest objects. The input is processed in
+ * chunks: validated, checked for duplicates with one IN query per key, hashed in parallel and
+ * inserted with JDBC batching in one transaction per chunk. Failures are reported per record.
+ */
+@Service
+public class UserImportService {
+
+    private final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+    private final PasswordService passwordService;
+    private final OutboxService outboxService;
+    private final UserCache userCache;
+    private final UserDirectoryPublisher userDirectory;
+    private final UserImportConfig config;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate recordTransaction;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordService passwordService,
+                             OutboxService outboxService,
+                             UserCache userCache,
+                             UserDirectoryPublisher userDirectory,
+                             UserImportConfig config,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordService = passwordService;
+        this.outboxService = outboxService;
+        this.userCache = userCache;
+        this.userDirectory = userDirectory;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.recordTransaction = new TransactionTemplate(transactionManager);
+        this.recordTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public BulkImportResponse importUsers(InputStream ndjson) throws IOException {
+        BulkImportResponse response = new BulkImportResponse();
+        List<ImportRecord> chunk = new ArrayList<>(config.getChunkSize());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                response.setReceived(response.getReceived() + 1);
+                try {
+                    chunk.add(new ImportRecord(lineNumber, objectMapper.readValue(line, CreateUserRequest.class)));
+                } catch (JsonProcessingException e) {
+                    fail(response, lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+                if (chunk.size() >= config.getChunkSize()) {
+                    importChunk(chunk, response);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, response);
+        }
+
+        logger.info("Bulk import finished: {} received, {} imported, {} failed",
+                response.getReceived(), response.getImported(), response.getFailed());
+        return response;
+    }
+
+    private void importChunk(List<ImportRecord> chunk, BulkImportResponse response) {
+        List<ImportRecord> valid = validate(chunk, response);
+        valid = rejectExisting(valid, response);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordService.hashPasswords(
+                valid.stream().map(record -> record.request().getPassword()).toList());
+        List<User> users = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            CreateUserRequest request = valid.get(i).request();
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(hashes.get(i));
+            user.setEmail(UserValidator.normalizeEmail(request.getEmail()));
+            users.add(user);
+        }
+
+        try {
+            chunkTransaction.executeWithoutResult(status -> insert(users));
+            response.setImported(response.getImported() + users.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took one of the keys; retry record by record to isolate it
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                // Ids assigned by the rolled-back persist would turn the retry into a merge
+                user.setId(null);
+                try {
+                    recordTransaction.executeWithoutResult(status -> insert(List.of(user)));
+                    response.setImported(response.getImported() + 1);
+                } catch (DataIntegrityViolationException recordFailure) {
+                    fail(response, valid.get(i).line(), user.getUsername(),
+                            UserValidator.duplicateUser(recordFailure, user.getUsername(), user.getEmail()).getMessage());
+                }
+            }
+        }
+    }
+
+    // saveAll on new entities only persists, so Hibernate groups the inserts into JDBC batches at flush
+    private void insert(List<User> users) {
+        for (User saved : userRepository.saveAll(users)) {
+            outboxService.enqueue(AuthorizationService.USER_CREATED_TOPIC, saved.getUsername(),
+                    new UserCreatedEvent(saved.getId(), saved.getUsername(), saved.getEmail()));
+            userCache.invalidate(saved.getId(), saved.getUsername());
+            userDirectory.upsert(saved);
+        }
+    }
+
+    private List<ImportRecord> validate(List<ImportRecord> chunk, BulkImportResponse response) {
+        List<ImportRecord> valid = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            CreateUserRequest request = record.request();
+            try {
+                UserValidator.validateNewUser(request.getUsername(), request.getPassword());
+                valid.add(record);
+            } catch (IllegalArgumentException e) {
+                fail(response, record.line(), request.getUsername(), e.getMessage());
+            }
+        }
+        return valid;
+    }
+
+    private List<ImportRecord> rejectExisting(List<ImportRecord> records, BulkImportResponse response) {
+        Set<String> usernameCandidates = new HashSet<>();
+        Set<String> emailCandidates = new HashSet<>();
+        for (ImportRecord record : records) {
+            CreateUserRequest request = record.request();
+            usernameCandidates.add(request.getUsername());
+            if (hasEmail(request)) {
+                emailCandidates.add(request.getEmail());
+            }
+        }
+        Set<String> existingUsernames = usernameCandidates.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(userRepository.findExistingUsernames(usernameCandidates));
+        Set<String> existingEmails = emailCandidates.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(userRepository.findExistingEmails(emailCandidates));
+
+        List<ImportRecord> remaining = new ArrayList<>(records.size());
+        for (ImportRecord record : records) {
+            CreateUserRequest request = record.request();
+            // Adding to the sets also rejects duplicates within the chunk
+            if (!existingUsernames.add(request.getUsername())) {
+                fail(response, record.line(), request.getUsername(), "Username already exists: " + request.getUsername());
+            } else if (hasEmail(request) && !existingEmails.add(request.getEmail())) {
+                fail(response, record.line(), request.getUsername(), "Email already exists: " + request.getEmail());
+            } else {
+                remaining.add(record);
+            }
+        }
+        return remaining;
+    }
+
+    private void fail(BulkImportResponse response, long line, String username, String reason) {
+        response.setFailed(response.getFailed() + 1);
+        if (response.getFailures().size() < config.getMaxReportedFailures()) {
+            response.getFailures().add(new BulkImportFailure(line, username, reason));
+        }
+    }
+
+    private static boolean hasEmail(CreateUserRequest request) {
+        return request.getEmail() != null && !request.getEmail().isEmpty();
+    }
+
+    private record ImportRecord(long line, CreateUserRequest request) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.muzika.authorizationmanager.services;
+
+import org.muzika.authorizationmanager.entities.User;
+import org.muzika.authorizationmanager.exception.UniqueConstraintViolations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Format rules for new accounts, shared by single registration and bulk import.
+ * Uniqueness is not checked here; it is enforced by the unique constraints on insert.
+ */
+final class UserValidator {
+
+    // Alphanumeric, 3-20 characters
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9]{3,20}$");
+
+    private UserValidator() {
+    }
+
+    static void validateNewUser(String username, String password) {
+        if (username == null || !USERNAME_PATTERN.matcher(username).matches()) {
+            throw new IllegalArgumentException("Username must be alphanumeric and 3-20 characters long");
+        }
+
+        // Validate password strength (minimum 6 characters)
+        if (password == null || password.length() < 6) {
+            throw new IllegalArgumentException("Password must be at least 6 characters long");
+        }
+    }
+
+    /**
+     * Empty email means no email; stored as NULL so it does not collide on the unique constraint.
+     */
+    static String normalizeEmail(String email) {
+        return email == null || email.isEmpty() ? null : email;
+    }
+
+    /**
+     * Turns a unique constraint violation on insert into the "already exists" error of the key
+     * that collided, which GlobalExceptionHandler maps to 409. Other integrity violations are
+     * returned as they are.
+     */
+    static RuntimeException duplicateUser(DataIntegrityViolationException e, String username, String email) {
+        // Not a duplicate; left for GlobalExceptionHandler
+        if (!UniqueConstraintViolations.isUniqueViolation(e)) {
+            return e;
+        }
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (cause.contains(User.EMAIL_CONSTRAINT)) {
+            return new IllegalArgumentException("Email already exists: " + email);
+        }
+        if (cause.contains(User.USERNAME_CONSTRAINT)) {
+            return new IllegalArgumentException("Username already exists: " + username);
+        }
+        return new IllegalArgumentException("Username or email already exists");
+    }
+}
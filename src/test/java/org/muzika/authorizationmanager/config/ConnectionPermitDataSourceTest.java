@@ -0,0 +1,69 @@
+package org.muzika.authorizationmanager.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.exception.ServiceBusyException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionPermitDataSourceTest {
+
+    private static final int PERMITS = 2;
+
+    private DataSource pool;
+    private ConnectionPermitDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConnectionPermitDataSource(pool, PERMITS, 0, 1);
+    }
+
+    @Test
+    void permitIsHeldUntilTheConnectionIsClosedAndReleasedOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isEqualTo(PERMITS - 1);
+
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void closeReachesThePooledConnection() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        dataSource.getConnection().close();
+
+        verify(pooled).close();
+    }
+
+    @Test
+    void failedCheckoutReleasesItsPermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("Connection is not available"));
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+
+        assertThat(dataSource.availablePermits()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void rejectsOncePermitsAreExhausted() throws SQLException {
+        for (int i = 0; i < PERMITS; i++) {
+            dataSource.getConnection();
+        }
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(ServiceBusyException.class);
+    }
+}
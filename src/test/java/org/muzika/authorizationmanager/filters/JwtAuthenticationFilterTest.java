@@ -0,0 +1,64 @@
+package org.muzika.authorizationmanager.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.config.AdminConfig;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.services.JwtService;
+import org.muzika.authorizationmanager.services.TokenEpochs;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final UUID adminId = UUID.randomUUID();
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig config = new JwtConfig();
+        config.setExpiration(900_000L);
+        config.setAllowEphemeralKey(true);
+        jwtService = new JwtService(config, new TokenEpochs(), new SimpleMeterRegistry());
+        AdminConfig adminConfig = new AdminConfig();
+        adminConfig.getUserIds().add(adminId);
+        filter = new JwtAuthenticationFilter(jwtService, adminConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void configuredUserIdIsAdmin() throws Exception {
+        assertThat(authorities(jwtService.generateToken(adminId, "admin", 0))).contains("ROLE_ADMIN");
+    }
+
+    @Test
+    void reusedUsernameOfAnAdminIsNotAdmin() throws Exception {
+        // Someone registered the name after the admin account was deleted
+        assertThat(authorities(jwtService.generateToken(UUID.randomUUID(), "admin", 0)))
+                .containsExactly("ROLE_USER");
+    }
+
+    private List<String> authorities(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/admin/users/export");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+}
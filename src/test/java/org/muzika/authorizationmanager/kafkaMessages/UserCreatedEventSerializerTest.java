@@ -0,0 +1,75 @@
+package org.muzika.authorizationmanager.kafkaMessages;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserCreatedEventSerializerTest {
+
+    private static final String TOPIC = "user-created";
+
+    private final UserCreatedEventSerializer serializer = new UserCreatedEventSerializer();
+    private final UserCreatedEventDeserializer deserializer = new UserCreatedEventDeserializer();
+
+    @Test
+    void binaryRoundTrip() {
+        UserCreatedEvent event = new UserCreatedEvent(UUID.randomUUID(), "zoë", "zoe@example.com");
+
+        UserCreatedEvent read = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event));
+
+        assertThat(read).isEqualTo(event);
+    }
+
+    @Test
+    void binaryRoundTripWithMissingFields() {
+        UserCreatedEvent event = new UserCreatedEvent(null, "alice", null);
+
+        UserCreatedEvent read = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event));
+
+        assertThat(read).isEqualTo(event);
+    }
+
+    @Test
+    void readsJsonRecords() {
+        UUID id = UUID.randomUUID();
+        byte[] json = ("{\"userId\":\"" + id + "\",\"username\":\"alice\",\"unknown\":1}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        UserCreatedEvent read = deserializer.deserialize(TOPIC, json);
+
+        assertThat(read).isEqualTo(new UserCreatedEvent(id, "alice", null));
+    }
+
+    @Test
+    void rejectsTruncatedRecords() {
+        byte[] data = serializer.serialize(TOPIC, new UserCreatedEvent(UUID.randomUUID(), "alice", "alice@example.com"));
+
+        for (int length = 1; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThatThrownBy(() -> deserializer.deserialize(TOPIC, truncated))
+                    .isInstanceOf(SerializationException.class);
+        }
+    }
+
+    @Test
+    void rejectsNegativeStringLength() {
+        // Username flag set, then a five-byte varint that decodes to a negative int
+        byte[] data = {UserCreatedEventSerializer.SCHEMA_VERSION, UserCreatedEventSerializer.USERNAME_PRESENT,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 'a'};
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, data))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsUnknownSchemaVersion() {
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, new byte[]{99, 0}))
+                .isInstanceOf(SerializationException.class);
+    }
+}
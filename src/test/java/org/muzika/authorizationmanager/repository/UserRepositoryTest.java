@@ -0,0 +1,55 @@
+package org.muzika.authorizationmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.entities.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void exportPagesVisitEveryUserOnceAcrossEqualTimestamps() {
+        for (int i = 0; i < 7; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setPassword("hash");
+            userRepository.save(user);
+        }
+        entityManager.flush();
+        // Ties on createdAt must be broken by id
+        entityManager.createNativeQuery("update users_auth set created_at = :createdAt")
+                .setParameter("createdAt", LocalDateTime.of(2024, 1, 1, 0, 0))
+                .executeUpdate();
+        entityManager.clear();
+
+        List<UUID> exported = new ArrayList<>();
+        List<UserExportRow> page = userRepository.findExportPage(Limit.of(3));
+        while (!page.isEmpty()) {
+            page.forEach(row -> exported.add(row.getId()));
+            UserExportRow last = page.get(page.size() - 1);
+            page = userRepository.findExportPageAfter(last.getCreatedAt(), last.getId(), Limit.of(3));
+        }
+
+        assertThat(exported).hasSize(7).doesNotHaveDuplicates();
+    }
+}
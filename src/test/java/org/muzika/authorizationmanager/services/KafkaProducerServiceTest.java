@@ -0,0 +1,40 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.kafkaMessages.TokenEpochEvent;
+import org.springframework.kafka.core.KafkaProducerException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KafkaProducerServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failuresAreTaggedWithTheRootCause() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        KafkaTemplate<String, TokenEpochEvent> tokenEpochKafka = mock(KafkaTemplate.class);
+        when(tokenEpochKafka.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.failedFuture(
+                new KafkaProducerException(new ProducerRecord<>("token-epoch", "key"), "Send failed",
+                        new TimeoutException("Expiring 1 record(s)"))));
+        KafkaProducerService service = new KafkaProducerService(mock(KafkaTemplate.class), mock(KafkaTemplate.class),
+                mock(KafkaTemplate.class), tokenEpochKafka, meterRegistry);
+
+        service.sendTokenEpochEvent("token-epoch", "key", new TokenEpochEvent(UUID.randomUUID(), 1, null));
+
+        assertThat(meterRegistry.get("auth.kafka.send.failures")
+                .tag("topic", "token-epoch")
+                .tag("exception", "TimeoutException")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,179 @@
+package org.muzika.authorizationmanager.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.entities.OutboxEvent;
+import org.muzika.authorizationmanager.kafkaMessages.UserDirectoryEntry;
+import org.muzika.authorizationmanager.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@ActiveProfiles("test")
+@EmbeddedKafka(kraft = true, partitions = 1, topics = {"user-created", "user-invalidation", "token-epoch", "user-directory"})
+class OutboxRelayTest {
+
+    private static final String TOPIC = UserDirectoryPublisher.USER_DIRECTORY_TOPIC;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-relay-test-" + UUID.randomUUID(), "false", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void publishesCommittedEventsAndMarksThemSent() throws Exception {
+        String key = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueue(TOPIC, key, entry(key, "alice"));
+            outboxService.enqueueTombstone(TOPIC, key);
+        });
+
+        drain();
+
+        assertThat(values(receive(2), key)).containsExactly("alice", null);
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getStatus)
+                .containsOnly(OutboxEvent.Status.SENT);
+    }
+
+    @Test
+    void rescheduledEventHoldsBackLaterEventsForItsKey() throws Exception {
+        String held = UUID.randomUUID().toString();
+        String other = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueue(TOPIC, held, entry(held, "bob"));
+            outboxService.enqueueTombstone(TOPIC, held);
+            outboxService.enqueue(TOPIC, other, entry(other, "carol"));
+        });
+        // As if the upsert had failed once and is waiting for its retry
+        OutboxEvent upsert = firstFor(held);
+        upsert.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+        outboxEventRepository.save(upsert);
+
+        drain();
+
+        assertThat(values(receive(1), other)).containsExactly("carol");
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> held.equals(event.getMessageKey()))
+                .extracting(OutboxEvent::getStatus)
+                .containsOnly(OutboxEvent.Status.PENDING);
+
+        upsert = firstFor(held);
+        upsert.setNextAttemptAt(LocalDateTime.now());
+        outboxEventRepository.save(upsert);
+        drain();
+
+        // The tombstone still lands after the upsert, so compaction keeps the delete
+        assertThat(values(receive(2), held)).containsExactly("bob", null);
+    }
+
+    @Test
+    void deadEventHoldsBackItsKeyAndIsReported() {
+        String key = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueue(TOPIC, key, entry(key, "dave"));
+            outboxService.enqueueTombstone(TOPIC, key);
+        });
+        OutboxEvent upsert = firstFor(key);
+        upsert.setStatus(OutboxEvent.Status.FAILED);
+        outboxEventRepository.save(upsert);
+
+        drain();
+        outboxRelay.refreshMetrics();
+
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getStatus() == OutboxEvent.Status.PENDING)
+                .hasSize(1);
+        assertThat(meterRegistry.get("auth.outbox.dead").gauge().value()).isEqualTo(1.0);
+    }
+
+    private void drain() {
+        while (outboxRelay.relayBatch() > 0) {
+            // next batch
+        }
+    }
+
+    private OutboxEvent firstFor(String key) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> key.equals(event.getMessageKey()))
+                .filter(event -> !OutboxService.TOMBSTONE.equals(event.getEventType()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<ConsumerRecord<String, String>> receive(int count) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (records.size() < count && System.nanoTime() < deadline) {
+            consumer.poll(Duration.ofMillis(200)).forEach(records::add);
+        }
+        return records;
+    }
+
+    // Usernames of the key's records in arrival order, null for a tombstone
+    private List<String> values(List<ConsumerRecord<String, String>> records, String key) throws Exception {
+        List<String> values = new ArrayList<>();
+        for (ConsumerRecord<String, String> record : records) {
+            if (key.equals(record.key())) {
+                values.add(record.value() == null ? null : objectMapper.readTree(record.value()).get("username").asText());
+            }
+        }
+        return values;
+    }
+
+    private static UserDirectoryEntry entry(String userId, String username) {
+        UserDirectoryEntry entry = new UserDirectoryEntry();
+        entry.setUserId(UUID.fromString(userId));
+        entry.setUsername(username);
+        return entry;
+    }
+}
@@ -0,0 +1,57 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.config.PasswordHashingConfig;
+import org.muzika.authorizationmanager.exception.ServiceBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordService passwordService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return true;
+        });
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(1);
+        config.setTimeoutMillis(100);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordService = new PasswordService(slowEncoder, config, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordService.shutdown();
+    }
+
+    @Test
+    void timedOutHashesThatAlreadyRunAreCountedAsAbandoned() throws Exception {
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() ->
+                assertThatThrownBy(() -> passwordService.verifyPassword("secret", "hash"))
+                        .isInstanceOf(ServiceBusyException.class));
+        Thread.sleep(20);
+        // Still queued behind the first one when it times out, so it never runs
+        assertThatThrownBy(() -> passwordService.verifyPassword("secret", "hash"))
+                .isInstanceOf(ServiceBusyException.class);
+        running.get();
+
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.password.hashing.abandoned").counter().count()).isEqualTo(1);
+    }
+}
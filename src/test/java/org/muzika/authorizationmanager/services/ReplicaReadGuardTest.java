@@ -0,0 +1,79 @@
+package org.muzika.authorizationmanager.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.config.DataSourceRoutingConfig;
+import org.muzika.authorizationmanager.config.ReadWriteRoutingDataSource;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaReadGuardTest {
+
+    private ReplicaReadGuard guard;
+    // Whether each lookup ran on the primary
+    private final List<Boolean> onPrimary = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DataSourceRoutingConfig config = new DataSourceRoutingConfig();
+        config.setEnabled(true);
+        config.getReplicas().add(new DataSourceRoutingConfig.Replica());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        guard = new ReplicaReadGuard(config, transactionManager);
+    }
+
+    @Test
+    void missesForUnknownKeysStayOnTheReplica() {
+        Optional<String> result = guard.read("nobody", () -> {
+            onPrimary.add(ReadWriteRoutingDataSource.isPrimaryForced());
+            return Optional.empty();
+        });
+
+        assertThat(result).isEmpty();
+        assertThat(onPrimary).containsExactly(false);
+    }
+
+    @Test
+    void keysWrittenOnAnotherInstanceAreReadFromThePrimary() {
+        UUID id = UUID.randomUUID();
+        guard.onUserWritten(new UserInvalidatedEvent(id, "alice"));
+
+        guard.read("alice", () -> {
+            onPrimary.add(ReadWriteRoutingDataSource.isPrimaryForced());
+            return Optional.of("alice");
+        });
+
+        assertThat(onPrimary).containsExactly(true);
+    }
+
+    @Test
+    void batchSendsOnlyRecentWritesToThePrimary() {
+        guard.recordWrite("bob");
+        List<List<String>> primaryBatches = new ArrayList<>();
+        List<List<String>> replicaBatches = new ArrayList<>();
+        Function<Collection<String>, List<String>> lookup = keys -> {
+            (ReadWriteRoutingDataSource.isPrimaryForced() ? primaryBatches : replicaBatches).add(List.copyOf(keys));
+            return keys.stream().filter(key -> !key.equals("carol")).toList();
+        };
+
+        List<String> rows = guard.readAll(List.of("alice", "bob", "carol"), lookup);
+
+        assertThat(replicaBatches).containsExactly(List.of("alice", "carol"));
+        assertThat(primaryBatches).containsExactly(List.of("bob"));
+        assertThat(rows).containsExactlyInAnyOrder("alice", "bob");
+    }
+}
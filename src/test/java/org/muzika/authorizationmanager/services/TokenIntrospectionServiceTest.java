@@ -0,0 +1,60 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.dto.TokenIntrospection;
+import org.muzika.authorizationmanager.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TokenIntrospectionServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private UserRepository userRepository;
+    private TokenEpochs tokenEpochs;
+    private JwtService jwtService;
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig config = new JwtConfig();
+        config.setExpiration(900_000L);
+        config.setAllowEphemeralKey(true);
+        userRepository = mock(UserRepository.class);
+        tokenEpochs = new TokenEpochs();
+        jwtService = new JwtService(config, tokenEpochs, new SimpleMeterRegistry());
+        service = new TokenIntrospectionService(jwtService, userRepository, tokenEpochs, config);
+    }
+
+    @Test
+    void tokensWithAUserIdNeedNoDatabaseQuery() {
+        // Issued right after signup: a lagging replica would not have the user yet
+        String token = jwtService.generateToken(userId, "fresh-user", 0);
+
+        TokenIntrospection result = service.introspect(List.of(token)).getResults().get(0);
+
+        assertThat(result.isActive()).isTrue();
+        verify(userRepository, never()).findExistingUsernames(any());
+    }
+
+    @Test
+    void revokedEpochsAreReported() {
+        String token = jwtService.generateToken(userId, "alice", 0);
+        tokenEpochs.advance(userId, 1, LocalDateTime.now());
+
+        TokenIntrospection result = service.introspect(List.of(token)).getResults().get(0);
+
+        assertThat(result.isRevoked()).isTrue();
+        assertThat(result.isActive()).isFalse();
+    }
+}
@@ -0,0 +1,114 @@
+package org.muzika.authorizationmanager.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.muzika.authorizationmanager.config.JwtConfig;
+import org.muzika.authorizationmanager.entities.UserTokenEpoch;
+import org.muzika.authorizationmanager.repository.UserTokenEpochRepository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private static final Duration LIFETIME = Duration.ofMinutes(15);
+
+    private final UUID userId = UUID.randomUUID();
+    private UserTokenEpochRepository epochRepository;
+    private TokenEpochs tokenEpochs;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        epochRepository = mock(UserTokenEpochRepository.class);
+        tokenEpochs = new TokenEpochs();
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setExpiration(LIFETIME.toMillis());
+        service = new TokenRevocationService(epochRepository, tokenEpochs, mock(OutboxService.class),
+                jwtConfig, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokensAreIssuedWithTheEpochInTheDatabase() {
+        // Revoked on another instance; the event has not arrived here yet
+        when(epochRepository.findById(userId)).thenReturn(Optional.of(row(7, LocalDateTime.now())));
+
+        assertThat(service.currentEpoch(userId)).isEqualTo(7);
+        assertThat(tokenEpochs.isCurrent(claims(7))).isTrue();
+        assertThat(tokenEpochs.isCurrent(claims(6))).isFalse();
+    }
+
+    @Test
+    void usersWithoutRevocationsGetEpochZero() {
+        when(epochRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThat(service.currentEpoch(userId)).isZero();
+    }
+
+    @Test
+    void pruneForgetsRevocationsOlderThanTheTokenLifetime() {
+        UUID recent = UUID.randomUUID();
+        tokenEpochs.advance(userId, 1, LocalDateTime.now().minus(LIFETIME).minusHours(1));
+        tokenEpochs.advance(recent, 1, LocalDateTime.now());
+
+        service.prune();
+
+        assertThat(tokenEpochs.current(userId)).isZero();
+        assertThat(tokenEpochs.current(recent)).isEqualTo(1);
+        // Rows go later than the in-memory entries
+        ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(epochRepository).deleteByUpdatedAtBefore(before.capture());
+        assertThat(before.getValue()).isBefore(LocalDateTime.now().minus(LIFETIME).minusMinutes(1));
+    }
+
+    @Test
+    void epochOfARecreatedRowExceedsPrunedEpochs() {
+        // Tokens issued under a pruned revocation carry an epoch no later than its time
+        long prunedEpoch = System.currentTimeMillis() - LIFETIME.toMillis();
+        when(epochRepository.lockByUserId(userId)).thenReturn(Optional.empty());
+        when(epochRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.revokeAccessTokens(userId);
+
+        ArgumentCaptor<UserTokenEpoch> saved = ArgumentCaptor.forClass(UserTokenEpoch.class);
+        verify(epochRepository).save(saved.capture());
+        assertThat(saved.getValue().getEpoch()).isGreaterThan(prunedEpoch);
+    }
+
+    private UserTokenEpoch row(long epoch, LocalDateTime updatedAt) {
+        UserTokenEpoch row = new UserTokenEpoch();
+        row.setUserId(userId);
+        row.setEpoch(epoch);
+        row.setUpdatedAt(updatedAt);
+        return row;
+    }
+
+    private Claims claims(long epoch) {
+        return Jwts.claims()
+                .add(TokenEpochs.USER_ID_CLAIM, userId.toString())
+                .add(TokenEpochs.EPOCH_CLAIM, epoch)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package org.muzika.authorizationmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.muzika.authorizationmanager.config.UserCacheConfig;
+import org.muzika.authorizationmanager.entities.User;
+import org.muzika.authorizationmanager.kafkaMessages.UserInvalidatedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class UserCacheTest {
+
+    private UserCache cache;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(new UserCacheConfig(), mock(OutboxService.class), new SimpleMeterRegistry());
+        alice = new User();
+        alice.setId(UUID.randomUUID());
+        alice.setUsername("alice");
+    }
+
+    @Test
+    void hitsDoNotCallTheLoader() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getById(alice.getId(), id -> load(loads));
+        cache.getById(alice.getId(), id -> load(loads));
+        cache.getByUsername("alice", name -> load(loads));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadRacingAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // The stale row is read, then the write commits and evicts before the load returns
+        cache.getById(alice.getId(), id -> {
+            Optional<User> stale = load(loads);
+            cache.onUserInvalidated(new UserInvalidatedEvent(alice.getId(), "alice"));
+            return stale;
+        });
+        cache.getById(alice.getId(), id -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void usernameLoadRacingAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getByUsername("alice", name -> {
+            Optional<User> stale = load(loads);
+            cache.onUserInvalidated(new UserInvalidatedEvent(alice.getId(), "alice"));
+            return stale;
+        });
+        cache.getById(alice.getId(), id -> load(loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void batchLoadRacingAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Map<UUID, User> found = cache.getAllById(List.of(alice.getId()), ids -> {
+            User stale = load(loads).orElseThrow();
+            cache.onUserInvalidated(new UserInvalidatedEvent(alice.getId(), "alice"));
+            return List.of(stale);
+        });
+        cache.getById(alice.getId(), id -> load(loads));
+
+        assertThat(found).containsKey(alice.getId());
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<User> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Optional.of(alice);
+    }
+}